@@ -0,0 +1,24 @@
+package com.example.demo;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application against the embedded H2 test profile, without the web server, for
+ * benchmarks that need real repositories.
+ */
+public final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN", "logging.level.org.springframework.web=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+    }
+}
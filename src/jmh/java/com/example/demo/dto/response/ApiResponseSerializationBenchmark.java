@@ -0,0 +1,45 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.dto.author.AuthorSummaryDTO;
+import com.example.demo.dto.book.BookDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+    @Param({"1", "20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<BookDTO>> response;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC message converter.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<BookDTO> books = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            books.add(new BookDTO((long) i, "Benchmark Book " + i, String.format("978%010d", i), 2024, 3, 5,
+                    List.of(new AuthorSummaryDTO(1L, "John Doe"), new AuthorSummaryDTO(2L, "Jane Smith")),
+                    LocalDateTime.now(), LocalDateTime.now()));
+        }
+        response = new ApiResponse<>("Books retrieved successfully", "success", 200, books);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
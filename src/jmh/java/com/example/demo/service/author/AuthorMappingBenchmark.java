@@ -0,0 +1,38 @@
+package com.example.demo.service.author;
+
+import com.example.demo.dto.author.AuthorDTO;
+import com.example.demo.model.author.Author;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorMappingBenchmark {
+    private AuthorService authorService;
+    private Author author;
+
+    @Setup
+    public void setUp() {
+        authorService = new AuthorService(null, null, null, null);
+        author = new Author();
+        author.setId(1L);
+        author.setName("John Doe");
+        author.setEmail("john@example.com");
+        author.setBio("Famous author");
+        author.setBirthDate(LocalDate.of(1980, 1, 1));
+        author.setCreatedAt(LocalDateTime.now());
+        author.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public AuthorDTO convertToDTO() {
+        return authorService.convertToDTO(author);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service.book;
+
+import com.example.demo.dto.book.BookDTO;
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMappingBenchmark {
+    @Param({"1", "3"})
+    private int authorCount;
+
+    private BookService bookService;
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        bookService = new BookService(null, null, null, null);
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < authorCount; i++) {
+            Author author = new Author();
+            author.setId((long) i);
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@example.com");
+            authors.add(author);
+        }
+        book = new Book();
+        book.setId(1L);
+        book.setTitle("Benchmark Book");
+        book.setIsbn("9780000000001");
+        book.setPublicationYear(2024);
+        book.setAvailableCopies(3);
+        book.setTotalCopies(5);
+        book.setAuthors(authors);
+        book.setCreatedAt(LocalDateTime.now());
+        book.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public BookDTO convertToDTO() {
+        return bookService.convertToDTO(book);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.model.member.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BorrowTransactionMappingBenchmark {
+    private BorrowTransactionService borrowTransactionService;
+    private BorrowTransaction transaction;
+
+    @Setup
+    public void setUp() {
+        borrowTransactionService = new BorrowTransactionService(null, null, null, null, null, null, null);
+        Book book = new Book();
+        book.setId(1L);
+        book.setTitle("Benchmark Book");
+        Member member = new Member();
+        member.setId(1L);
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        transaction = new BorrowTransaction();
+        transaction.setId(1L);
+        transaction.setBook(book);
+        transaction.setMember(member);
+        transaction.setBorrowDate(LocalDate.now().minusDays(20));
+        transaction.setDueDate(LocalDate.now().minusDays(6));
+        transaction.setStatus(Status.BORROWED);
+    }
+
+    @Benchmark
+    public BorrowTransactionDTO convertToDTO() {
+        return borrowTransactionService.convertToDTO(transaction);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service.borrowTransaction;
+
+import com.example.demo.BenchmarkContext;
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.exception.BorrowLimitExceededException;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The borrow path against embedded H2: a request that fails validation because the member is at
+ * the borrow limit, and a full borrow followed by its return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BorrowValidationBenchmark {
+    private ConfigurableApplicationContext context;
+    private BorrowTransactionService borrowTransactionService;
+    private BorrowTransactionRequest overLimit;
+    private BorrowTransactionRequest allowed;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        borrowTransactionService = context.getBean(BorrowTransactionService.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        Member busy = memberRepository.save(member("busy@example.com"));
+        Member idle = memberRepository.save(member("idle@example.com"));
+        for (int i = 0; i < 4; i++) {
+            Book book = bookRepository.save(book(i));
+            if (i < 3) {
+                borrowTransactionService.borrowBook(new BorrowTransactionRequest(book.getId(), busy.getId(), LocalDate.now(), null));
+            } else {
+                overLimit = new BorrowTransactionRequest(book.getId(), busy.getId(), LocalDate.now(), null);
+                allowed = new BorrowTransactionRequest(book.getId(), idle.getId(), LocalDate.now(), null);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object rejectedAtBorrowLimit() {
+        try {
+            return borrowTransactionService.borrowBook(overLimit);
+        } catch (BorrowLimitExceededException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public BorrowTransactionDTO borrowAndReturn() {
+        BorrowTransactionDTO borrowed = borrowTransactionService.borrowBook(allowed);
+        return borrowTransactionService.returnBook(borrowed.id());
+    }
+
+    private static Member member(String email) {
+        Member member = new Member();
+        member.setName(email);
+        member.setEmail(email);
+        member.setPhone("555-0100");
+        member.setMembershipDate(LocalDateTime.now());
+        member.setStatus(Status.ACTIVE);
+        return member;
+    }
+
+    private static Book book(int i) {
+        Book book = new Book();
+        book.setTitle("Benchmark Book " + i);
+        book.setIsbn(String.format("978%010d", i));
+        book.setPublicationYear(2024);
+        book.setAvailableCopies(1_000);
+        book.setTotalCopies(1_000);
+        return book;
+    }
+}
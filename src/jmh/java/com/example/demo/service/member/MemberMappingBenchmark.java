@@ -0,0 +1,39 @@
+package com.example.demo.service.member;
+
+import com.example.demo.dto.member.MemberDTO;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberMappingBenchmark {
+    private MemberService memberService;
+    private Member member;
+
+    @Setup
+    public void setUp() {
+        memberService = new MemberService(null, null, null);
+        member = new Member();
+        member.setId(1L);
+        member.setName("John Doe");
+        member.setEmail("john@example.com");
+        member.setPhone("555-0100");
+        member.setMembershipDate(LocalDateTime.now());
+        member.setStatus(Status.ACTIVE);
+        member.setCreatedAt(LocalDateTime.now());
+        member.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public MemberDTO convertToDTO() {
+        return memberService.convertToDTO(member);
+    }
+}
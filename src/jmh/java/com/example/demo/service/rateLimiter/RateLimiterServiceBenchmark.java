@@ -0,0 +1,63 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.config.RateLimitProperties.KeyType;
+import com.example.demo.config.RateLimitProperties.Policy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-request cost of the rate limit check with eight threads either fighting over one client's
+ * bucket or each using their own. Capacity is large enough that nothing is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimiterServiceBenchmark {
+    private RateLimiterService rateLimiterService;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(RateLimitProperties.Mode.LOCAL, 100_000, List.of("/actuator/health/**"), List.of(
+                new Policy("search", "/api/books/search", List.of("GET"), 1_000_000_000L, Duration.ofSeconds(1), KeyType.IP, null),
+                new Policy("default", "/**", List.of(), 1_000_000_000L, Duration.ofSeconds(1), KeyType.IPV6_PREFIX, null)
+        ), null);
+        rateLimiterService = new RateLimiterService(properties, new SimpleMeterRegistry(), null);
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private MockHttpServletRequest shared;
+        private MockHttpServletRequest own;
+
+        @Setup
+        public void setUp() {
+            shared = new MockHttpServletRequest("GET", "/api/books/search");
+            shared.setRemoteAddr("10.0.0.1");
+            own = new MockHttpServletRequest("GET", "/api/books/42");
+            own.setRemoteAddr("2001:db8:" + THREADS.incrementAndGet() + "::1");
+        }
+    }
+
+    @Benchmark
+    public RateLimitResult contendedBucket(Requests requests) {
+        return rateLimiterService.check(requests.shared);
+    }
+
+    @Benchmark
+    public RateLimitResult uncontendedBucket(Requests requests) {
+        return rateLimiterService.check(requests.own);
+    }
+}
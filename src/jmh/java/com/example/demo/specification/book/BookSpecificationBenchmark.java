@@ -0,0 +1,64 @@
+package com.example.demo.specification.book;
+
+import com.example.demo.BenchmarkContext;
+import com.example.demo.model.book.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning search parameters into an executable criteria query: building the
+ * specification, resolving its predicates and letting Hibernate interpret the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSpecificationBenchmark {
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public TypedQuery<Book> titleOnly() {
+        return build(BookSpecification.search("Catalog", null, null));
+    }
+
+    @Benchmark
+    public TypedQuery<Book> allFilters() {
+        return build(BookSpecification.search("Catalog", "9780000000001", "Doe"));
+    }
+
+    private TypedQuery<Book> build(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = criteriaBuilder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query);
+    }
+}
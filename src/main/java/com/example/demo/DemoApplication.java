@@ -1,9 +1,18 @@
 package com.example.demo;
 
+import com.example.demo.config.CatalogImportProperties;
+import com.example.demo.config.DueDateEventProperties;
+import com.example.demo.config.InstrumentationProperties;
+import com.example.demo.config.MailPoolProperties;
+import com.example.demo.config.OutboxProperties;
 import com.example.demo.config.RateLimitInterceptor;
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.config.ReminderProperties;
+import com.example.demo.config.UniqueKeyFilterProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -14,6 +23,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @SpringBootApplication
 @Configuration
 @EnableScheduling
+@EnableConfigurationProperties({RateLimitProperties.class, ReminderProperties.class, OutboxProperties.class, MailPoolProperties.class,
+		DueDateEventProperties.class, CatalogImportProperties.class, UniqueKeyFilterProperties.class, InstrumentationProperties.class})
 public class DemoApplication {
 	@Autowired
 	private RateLimitInterceptor rateLimitInterceptor;
@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bulk catalog import settings, bound from {@code catalog-import.*}.
+ *
+ * @param chunkSize records parsed, checked against the database and written in one transaction
+ * @param maxErrors rejected records listed in the report; the rest are only counted
+ * @param file      CSV or NDJSON file imported at startup, after which the application exits
+ */
+@ConfigurationProperties(prefix = "catalog-import")
+public record CatalogImportProperties(@DefaultValue("1000") int chunkSize,
+                                     @DefaultValue("100") int maxErrors,
+                                     String file) {
+
+    public CatalogImportProperties {
+        chunkSize = Math.max(1, chunkSize);
+        maxErrors = Math.max(0, maxErrors);
+    }
+}
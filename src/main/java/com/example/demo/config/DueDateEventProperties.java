@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-loan due date notifications, bound from {@code due-date-events.*}. A loan is due by the end
+ * of its due date: reminders fire each {@code reminderOffsets} before that, a due-today notice at
+ * the start of the due date, and an overdue notice once it has passed. When disabled, the nightly
+ * reminder scan in {@code BorrowTransactionJob} runs instead.
+ *
+ * @param tick            timer resolution; events fire within one tick of their time
+ * @param catchUp         on startup, events that came due at most this long ago are still sent;
+ *                        a failing event is retried until it is this late
+ * @param retryBackoff    delay before the first retry of an event whose email could not be queued,
+ *                        doubling up to {@code maxRetryBackoff}
+ */
+@ConfigurationProperties(prefix = "due-date-events")
+public record DueDateEventProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue({"48h", "2h"}) List<Duration> reminderOffsets,
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("1d") Duration catchUp,
+        @DefaultValue("10s") Duration retryBackoff,
+        @DefaultValue("10m") Duration maxRetryBackoff) {
+
+    public DueDateEventProperties {
+        reminderOffsets = reminderOffsets == null ? List.of() : List.copyOf(reminderOffsets);
+    }
+}
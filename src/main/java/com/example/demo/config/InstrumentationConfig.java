@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import com.example.demo.instrumentation.RequestSqlMetricsFilter;
+import com.example.demo.instrumentation.ServiceTimingAspect;
+import com.example.demo.instrumentation.SqlMetricsDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Latency and SQL meters beyond Spring Boot's own {@code http.server.requests}: per service method
+ * timers, per request statement counts and JDBC time, and warnings for slow statements, requests
+ * over their statement budget and repeated statements. {@code instrumentation.enabled=false}
+ * leaves all of it out, proxies included.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InstrumentationConfig {
+    @Bean
+    public ServiceTimingAspect serviceTimingAspect(MeterRegistry meterRegistry) {
+        return new ServiceTimingAspect(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestSqlMetricsFilter> requestSqlMetricsFilter(MeterRegistry meterRegistry,
+                                                                                   InstrumentationProperties properties) {
+        FilterRegistrationBean<RequestSqlMetricsFilter> registration = new FilterRegistrationBean<>(new RequestSqlMetricsFilter(meterRegistry, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<InstrumentationProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlMetricsDataSource)) {
+                    return new SqlMetricsDataSource(dataSource, properties.getObject().slowQuery());
+                }
+                return bean;
+            }
+        };
+    }
+}
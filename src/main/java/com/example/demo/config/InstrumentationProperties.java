@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Request and SQL instrumentation settings, bound from {@code instrumentation.*}.
+ *
+ * @param enabled                    service timers, SQL counting and the warnings below; false
+ *                                   removes the proxies too
+ * @param queryBudget                statements one request may run before it is logged
+ * @param repeatedStatementThreshold runs of the same statement, parameters aside, within one
+ *                                   request that are logged as a likely N+1
+ * @param slowQuery                  statements taking longer than this are logged with their SQL
+ */
+@ConfigurationProperties(prefix = "instrumentation")
+public record InstrumentationProperties(@DefaultValue("true") boolean enabled,
+                                        @DefaultValue("30") int queryBudget,
+                                        @DefaultValue("5") int repeatedStatementThreshold,
+                                        @DefaultValue("500ms") Duration slowQuery) {
+
+    public InstrumentationProperties {
+        queryBudget = Math.max(1, queryBudget);
+        repeatedStatementThreshold = Math.max(2, repeatedStatementThreshold);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Persistent SMTP sessions used for bulk sending, bound from {@code mail.pool.*}. Connection
+ * settings themselves come from {@code spring.mail.*}.
+ *
+ * @param size               sessions kept open, and so messages in flight at once
+ * @param messagesPerSession messages sent on one session before it is reopened; many servers cap
+ *                           this per connection
+ * @param idleTimeout        a session unused for longer is reopened rather than trusted, since
+ *                           servers drop idle clients
+ */
+@ConfigurationProperties(prefix = "mail.pool")
+public record MailPoolProperties(
+        @DefaultValue("4") int size,
+        @DefaultValue("100") int messagesPerSession,
+        @DefaultValue("30s") Duration idleTimeout) {
+
+    public MailPoolProperties {
+        size = Math.max(1, size);
+        messagesPerSession = Math.max(1, messagesPerSession);
+    }
+}
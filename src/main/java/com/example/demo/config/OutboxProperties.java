@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Delivery settings for the mail outbox, bound from {@code outbox.*}. A failed message is retried
+ * after {@code initialBackoff}, doubling up to {@code maxBackoff}, and is marked dead once it has
+ * been tried {@code maxAttempts} times.
+ *
+ * @param batchSize       messages claimed per dispatcher pass
+ * @param claimTimeout    how long claimed messages stay hidden from other dispatchers
+ * @param messageIdDomain right-hand side of the Message-ID built from each delivery key
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("8") int maxAttempts,
+        @DefaultValue("30s") Duration initialBackoff,
+        @DefaultValue("1h") Duration maxBackoff,
+        @DefaultValue("5m") Duration claimTimeout,
+        @DefaultValue("library.local") String messageIdDomain) {
+
+    public OutboxProperties {
+        batchSize = Math.max(1, batchSize);
+        maxAttempts = Math.max(1, maxAttempts);
+    }
+}
@@ -1,24 +1,31 @@
 package com.example.demo.config;
 
+import com.example.demo.service.rateLimiter.RateLimitResult;
 import com.example.demo.service.rateLimiter.RateLimiterService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
     static final private int TOO_MANY_REQUESTS = 429;
+    static final private String REMAINING_HEADER = "X-RateLimit-Remaining";
     @Autowired
     private RateLimiterService rateLimiterService;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String key = request.getRemoteAddr(); // Use userId, token, or other identifier if needed
+        RateLimitResult result = rateLimiterService.check(request);
+        if (result.limited()) {
+            response.setHeader(REMAINING_HEADER, Long.toString(result.remaining()));
+        }
 
-        if (!rateLimiterService.isAllowed(key)) {
+        if (!result.allowed()) {
             response.setStatus(RateLimitInterceptor.TOO_MANY_REQUESTS);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(result.retryAfterSeconds()));
             response.getWriter().write("Rate limit exceeded. Please try again later.");
             return false;
         }
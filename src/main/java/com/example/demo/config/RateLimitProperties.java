@@ -0,0 +1,81 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limiting policies bound from {@code rate-limiter.*}. Policies are matched in declaration
+ * order and the first one whose pattern and method match a request wins; paths matching an
+ * {@code exempt} pattern are never limited. In {@code jdbc} mode token state is shared by all
+ * instances through the {@code rate_limit_buckets} table.
+ */
+@ConfigurationProperties(prefix = "rate-limiter")
+public record RateLimitProperties(
+        @DefaultValue("LOCAL") Mode mode,
+        @DefaultValue("100000") long maxBuckets,
+        @DefaultValue("/actuator/health/**") List<String> exempt,
+        List<Policy> policies,
+        @DefaultValue Jdbc jdbc) {
+
+    public RateLimitProperties {
+        mode = mode == null ? Mode.LOCAL : mode;
+        exempt = exempt == null ? List.of() : List.copyOf(exempt);
+        policies = policies == null || policies.isEmpty() ? List.of(Policy.DEFAULT) : List.copyOf(policies);
+        jdbc = jdbc == null ? Jdbc.DEFAULT : jdbc;
+    }
+
+    public enum Mode {
+        /** Buckets live in this instance's heap; each replica enforces the limit on its own. */
+        LOCAL,
+        /** Buckets live in the shared database; replicas lease small batches of tokens from it. */
+        JDBC
+    }
+
+    /**
+     * @param leaseSize   most tokens an instance takes from a shared bucket in one round trip; a
+     *                    policy never leases more than a tenth of its capacity
+     * @param leaseTtl    how long leased tokens stay usable before they are forfeited
+     * @param maxAttempts compare-and-swap retries before a contended request is rejected
+     */
+    public record Jdbc(
+            @DefaultValue("10") int leaseSize,
+            @DefaultValue("1s") Duration leaseTtl,
+            @DefaultValue("5") int maxAttempts) {
+
+        public static final Jdbc DEFAULT = new Jdbc(10, Duration.ofSeconds(1), 5);
+    }
+
+    public record Policy(
+            String name,
+            String pattern,
+            List<String> methods,
+            long capacity,
+            Duration period,
+            @DefaultValue("IP") KeyType key,
+            @DefaultValue("X-Api-Key") String header) {
+
+        public static final Policy DEFAULT = new Policy("default", "/**", List.of(), 100, Duration.ofMinutes(10), KeyType.IP, null);
+
+        public Policy {
+            methods = methods == null ? List.of() : List.copyOf(methods);
+        }
+    }
+
+    public enum KeyType {
+        /** Remote address as seen by the servlet container. */
+        IP,
+        /** Remote address, with IPv6 clients grouped by their /64 network. */
+        IPV6_PREFIX,
+        /** Value of the policy's {@code header}, e.g. an API key; falls back to the remote address. */
+        HEADER,
+        /**
+         * Value of the {@code X-Member-Id} header; falls back to the remote address. Only use it
+         * where the header is set by authentication: a client choosing its own value gets a new
+         * bucket each time.
+         */
+        MEMBER
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the nightly due-date reminder run, bound from {@code reminders.*}.
+ *
+ * @param chunkSize reminders read from the cursor and queued in one transaction together with
+ *                  the checkpoint that records them
+ */
+@ConfigurationProperties(prefix = "reminders")
+public record ReminderProperties(@DefaultValue("200") int chunkSize) {
+
+    public ReminderProperties {
+        chunkSize = Math.max(1, chunkSize);
+    }
+}
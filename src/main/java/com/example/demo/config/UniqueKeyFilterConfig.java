@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.member.Member;
+import com.example.demo.repository.author.AuthorRepository;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * One {@link UniqueKeyFilter} per unique column that writes check before inserting. Inject them
+ * by bean name.
+ */
+@Configuration
+public class UniqueKeyFilterConfig {
+    @Bean
+    public UniqueKeyFilter isbnFilter(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                                      UniqueKeyFilterProperties properties, MeterRegistry meterRegistry) {
+        return new UniqueKeyFilter("book.isbn", Book.class, Book::getIsbn, bookRepository::streamIsbns,
+                transactionManager, properties, meterRegistry);
+    }
+
+    @Bean
+    public UniqueKeyFilter authorEmailFilter(AuthorRepository authorRepository, PlatformTransactionManager transactionManager,
+                                             UniqueKeyFilterProperties properties, MeterRegistry meterRegistry) {
+        return new UniqueKeyFilter("author.email", Author.class, Author::getEmail, authorRepository::streamEmails,
+                transactionManager, properties, meterRegistry);
+    }
+
+    @Bean
+    public UniqueKeyFilter memberEmailFilter(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                                             UniqueKeyFilterProperties properties, MeterRegistry meterRegistry) {
+        return new UniqueKeyFilter("member.email", Member.class, Member::getEmail, memberRepository::streamEmails,
+                transactionManager, properties, meterRegistry);
+    }
+}
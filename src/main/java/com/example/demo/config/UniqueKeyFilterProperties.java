@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sizing of the Bloom filters in front of the ISBN and email uniqueness checks, bound from
+ * {@code unique-key-filter.*}.
+ *
+ * @param falsePositiveRate share of keys not in the database that still cost a query, however
+ *                          much the filters grow
+ * @param initialCapacity   keys the first segment of each filter is sized for; filters grow in
+ *                          doubling segments past it
+ */
+@ConfigurationProperties(prefix = "unique-key-filter")
+public record UniqueKeyFilterProperties(@DefaultValue("0.01") double falsePositiveRate,
+                                        @DefaultValue("10000") int initialCapacity) {
+
+    public UniqueKeyFilterProperties {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("unique-key-filter.false-positive-rate must be between 0 and 1");
+        }
+        initialCapacity = Math.max(1, initialCapacity);
+    }
+}
@@ -1,21 +1,24 @@
 package com.example.demo.controller;
 
-import com.example.demo.jobs.borrowTransaction.BorrowTransactionJob;
+import com.example.demo.jobs.borrowTransaction.DueDateReminderPipeline;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 public class TestJobController {
 
-    private final BorrowTransactionJob borrowTransactionJob;
+    // The pipeline rather than BorrowTransactionJob, which only exists when per-loan timers are off.
+    private final DueDateReminderPipeline dueDateReminderPipeline;
 
-    public TestJobController(BorrowTransactionJob borrowTransactionJob) {
-        this.borrowTransactionJob = borrowTransactionJob;
+    public TestJobController(DueDateReminderPipeline dueDateReminderPipeline) {
+        this.dueDateReminderPipeline = dueDateReminderPipeline;
     }
 
     @GetMapping("run-due-date-job")
     public String runDueDateJobNow() {
-        borrowTransactionJob.sendDueDateReminders();
+        dueDateReminderPipeline.run(LocalDate.now().plusDays(1));
         return "Due date reminder job triggered successfully!";
     }
 }
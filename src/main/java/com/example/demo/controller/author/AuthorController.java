@@ -1,6 +1,7 @@
 package com.example.demo.controller.author;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
@@ -10,9 +11,12 @@ import com.example.demo.request.author.StoreAuthorRequest;
 import com.example.demo.request.author.UpdateAuthorRequest;
 import com.example.demo.service.author.AuthorService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,16 +31,29 @@ public class AuthorController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all authors", description = "Retrieve a list of all authors")
+    @Operation(summary = "Get all authors", description = "Retrieve a page of authors with optional filtering by name and email")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Authors retrieved successfully"),
     })
-    public ResponseEntity<ApiResponse<List<AuthorDTO>>> getAuthors() {
-        List<AuthorDTO> authors = authorService.getAuthors();
+    public ResponseEntity<ApiResponse<List<AuthorDTO>>> getAuthors(
+            @Parameter(description = "Filter by author name") @RequestParam(required = false) String name,
+            @Parameter(description = "Filter by author email") @RequestParam(required = false) String email,
+            @Parameter(description = "Pagination information") Pageable pageable) {
+        List<AuthorDTO> authors = authorService.getAuthors(name, email, pageable);
         ApiResponse<List<AuthorDTO>> response = new ApiResponse<>("Authors retrieved successfully", "success", HttpStatus.OK.value(), authors);
         return new ResponseEntity<ApiResponse<List<AuthorDTO>>>(response, HttpStatus.OK);
     }
 
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all authors", description = "Stream every author as newline-delimited JSON")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Authors streamed successfully"),
+    })
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        StreamingResponseBody body = authorService::exportAuthors;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("{id}")
     @Operation(summary = "Get a author by ID", description = "Retrieve details of a specific author by its ID")
     @ApiResponses(value = {
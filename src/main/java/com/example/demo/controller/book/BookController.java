@@ -1,20 +1,27 @@
 package com.example.demo.controller.book;
 
 import com.example.demo.dto.book.BookDTO;
+import com.example.demo.dto.book.CatalogImportReportDTO;
+import com.example.demo.dto.response.CursorPage;
 import com.example.demo.dto.response.ApiResponse;
 import com.example.demo.request.book.StoreBookRequest;
 import com.example.demo.request.book.UpdateBookRequest;
 import com.example.demo.service.book.BookService;
+import com.example.demo.service.catalog.CatalogFormat;
+import com.example.demo.service.catalog.CatalogImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -22,9 +29,11 @@ import java.util.List;
 @Tag(name = "Books", description = "Book management operations")
 public class BookController {
     private final BookService bookService;
+    private final CatalogImportService catalogImportService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, CatalogImportService catalogImportService) {
         this.bookService = bookService;
+        this.catalogImportService = catalogImportService;
     }
 
     @GetMapping
@@ -36,7 +45,13 @@ public class BookController {
     public ResponseEntity<ApiResponse<List<BookDTO>>> getBooks(
             @Parameter(description = "Filter by book title") @RequestParam(required = false) String title,
             @Parameter(description = "Filter by book ISBN") @RequestParam(required = false) String isbn,
+            @Parameter(description = "Keyset cursor: nextCursor of the previous response, or empty for the first slice. Switches to cursor paging without a total count") @RequestParam(required = false) String after,
             @Parameter(description = "Pagination information") Pageable pageable) {
+        if (after != null) {
+            CursorPage<BookDTO> page = bookService.getBooksAfter(title, isbn, null, after, pageable);
+            ApiResponse<List<BookDTO>> response = new ApiResponse<>("Books retrieved successfully", "success", HttpStatus.OK.value(), page.items(), page.nextCursor());
+            return new ResponseEntity<ApiResponse<List<BookDTO>>>(response, HttpStatus.OK);
+        }
         List<BookDTO> books = bookService.getBooks(title, isbn, null, pageable);
         ApiResponse<List<BookDTO>> response = new ApiResponse<>("Books retrieved successfully", "success", HttpStatus.OK.value(), books);
         return new ResponseEntity<ApiResponse<List<BookDTO>>>(response, HttpStatus.OK);
@@ -67,6 +82,21 @@ public class BookController {
         return new ResponseEntity<ApiResponse<BookDTO>>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("import")
+    @Operation(summary = "Import books", description = "Stream a CSV or NDJSON catalog of books and their authors into the library. " +
+            "Books whose ISBN is already in the catalog are skipped, authors are matched by email, and invalid records are reported without stopping the import")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Catalog imported"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Content type is neither text/csv nor application/x-ndjson, or the CSV header is incomplete")
+    })
+    public ResponseEntity<ApiResponse<CatalogImportReportDTO>> importBooks(
+            @Parameter(description = "text/csv or application/x-ndjson") @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream catalog) throws IOException {
+        CatalogImportReportDTO report = catalogImportService.importCatalog(catalog, CatalogFormat.fromMediaType(contentType));
+        ApiResponse<CatalogImportReportDTO> response = new ApiResponse<>(report.booksCreated() + " books imported", "success", HttpStatus.OK.value(), report);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PutMapping("{id}")
     @Operation(summary = "Update a book", description = "Update an existing book's information")
     @ApiResponses(value = {
@@ -104,8 +134,14 @@ public class BookController {
             @Parameter(description = "Search by book title") @RequestParam(required = false) String title,
             @Parameter(description = "Search by book ISBN") @RequestParam(required = false) String isbn,
             @Parameter(description = "Search by author name") @RequestParam(required = false) String author,
+            @Parameter(description = "Keyset cursor: nextCursor of the previous response, or empty for the first slice. Switches to cursor paging without a total count") @RequestParam(required = false) String after,
             @Parameter(description = "Pagination information") Pageable pageable) {
-        List<BookDTO> books = bookService.getBooks(title, isbn, author, pageable);
+        if (after != null) {
+            CursorPage<BookDTO> page = bookService.searchBooksAfter(title, isbn, author, after, pageable);
+            ApiResponse<List<BookDTO>> response = new ApiResponse<>("Books search results", "success", HttpStatus.OK.value(), page.items(), page.nextCursor());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+        List<BookDTO> books = bookService.searchBooks(title, isbn, author, pageable);
         ApiResponse<List<BookDTO>> response = new ApiResponse<>("Books search results", "success", HttpStatus.OK.value(), books);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
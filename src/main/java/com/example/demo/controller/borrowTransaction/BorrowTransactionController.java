@@ -1,16 +1,24 @@
 package com.example.demo.controller.borrowTransaction;
 
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.borrowTransaction.BatchItemResultDTO;
 import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.request.borrowTransaction.BatchBorrowRequest;
+import com.example.demo.request.borrowTransaction.BatchReturnRequest;
 import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
 import com.example.demo.service.borrowTransaction.BorrowTransactionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -36,6 +44,33 @@ public class BorrowTransactionController {
         return new ResponseEntity<ApiResponse<BorrowTransactionDTO>>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("borrow/batch")
+    @Operation(summary = "Borrow several books", description = "Borrow up to 50 books for one member in one transaction; each book gets its own result")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see each item's status"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data or member is not active"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Member not found")
+    })
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> borrowBooks(@Valid @RequestBody BatchBorrowRequest batchBorrowRequest) {
+        List<BatchItemResultDTO> results = borrowTransactionService.borrowBooks(batchBorrowRequest);
+        String message = succeeded(results) + " of " + results.size() + " books borrowed";
+        ApiResponse<List<BatchItemResultDTO>> response = new ApiResponse<>(message, "success", HttpStatus.OK.value(), results);
+        return new ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>(response, HttpStatus.OK);
+    }
+
+    @PutMapping("return/batch")
+    @Operation(summary = "Return several books", description = "Return up to 50 loans in one transaction; each loan gets its own result")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed; see each item's status"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> returnBooks(@Valid @RequestBody BatchReturnRequest batchReturnRequest) {
+        List<BatchItemResultDTO> results = borrowTransactionService.returnBooks(batchReturnRequest);
+        String message = succeeded(results) + " of " + results.size() + " books returned";
+        ApiResponse<List<BatchItemResultDTO>> response = new ApiResponse<>(message, "success", HttpStatus.OK.value(), results);
+        return new ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>(response, HttpStatus.OK);
+    }
+
     @PutMapping("{id}/return")
     public ResponseEntity<ApiResponse<BorrowTransactionDTO>> returnBook(@PathVariable Long id) {
         BorrowTransactionDTO borrowTransaction = borrowTransactionService.returnBook(id);
@@ -44,16 +79,30 @@ public class BorrowTransactionController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all transactions", description = "Retrieve a list of all transactions")
+    @Operation(summary = "Get all transactions", description = "Retrieve a page of transactions with optional filtering by status, member and book")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
     })
-    public ResponseEntity<ApiResponse<List<BorrowTransactionDTO>>> getTransactions() {
-        List<BorrowTransactionDTO> borrowTransactions = borrowTransactionService.getTransactions();
+    public ResponseEntity<ApiResponse<List<BorrowTransactionDTO>>> getTransactions(
+            @Parameter(description = "Filter by transaction status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by member ID") @RequestParam(required = false) Long memberId,
+            @Parameter(description = "Filter by book ID") @RequestParam(required = false) Long bookId,
+            @Parameter(description = "Pagination information") Pageable pageable) {
+        List<BorrowTransactionDTO> borrowTransactions = borrowTransactionService.getTransactions(status, memberId, bookId, pageable);
         ApiResponse<List<BorrowTransactionDTO>> response = new ApiResponse<>("Transactions retrieved successfully", "success", HttpStatus.OK.value(), borrowTransactions);
         return new ResponseEntity<ApiResponse<List<BorrowTransactionDTO>>>(response, HttpStatus.OK);
     }
 
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all transactions", description = "Stream every transaction as newline-delimited JSON")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions streamed successfully"),
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions() {
+        StreamingResponseBody body = borrowTransactionService::exportTransactions;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("{id}")
     @Operation(summary = "Get a transaction by ID", description = "Retrieve details of a specific transaction by its ID")
     @ApiResponses(value = {
@@ -65,4 +114,8 @@ public class BorrowTransactionController {
         ApiResponse<BorrowTransactionDTO> response = new ApiResponse<>("Transaction retrieved successfully", "success", HttpStatus.OK.value(), borrowTransaction);
         return new ResponseEntity<ApiResponse<BorrowTransactionDTO>>(response, HttpStatus.OK);
     }
+
+    private static long succeeded(List<BatchItemResultDTO> results) {
+        return results.stream().filter(BatchItemResultDTO::succeeded).count();
+    }
 }
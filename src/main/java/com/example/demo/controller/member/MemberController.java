@@ -3,6 +3,7 @@ package com.example.demo.controller.member;
 import com.example.demo.dto.author.AuthorDTO;
 import com.example.demo.dto.member.MemberDTO;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.model.member.Status;
 import com.example.demo.request.author.StoreAuthorRequest;
 import com.example.demo.request.author.UpdateAuthorRequest;
 import com.example.demo.request.member.StoreMemberRequest;
@@ -10,9 +11,12 @@ import com.example.demo.request.member.UpdateMemberRequest;
 import com.example.demo.service.member.MemberService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,12 +31,21 @@ public class MemberController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<MemberDTO>>> getMembers() {
-        List<MemberDTO> members = memberService.getMembers();
+    public ResponseEntity<ApiResponse<List<MemberDTO>>> getMembers(@RequestParam(required = false) String name,
+                                                                   @RequestParam(required = false) String email,
+                                                                   @RequestParam(required = false) Status status,
+                                                                   Pageable pageable) {
+        List<MemberDTO> members = memberService.getMembers(name, email, status, pageable);
         ApiResponse<List<MemberDTO>> response = new ApiResponse<>("Members retrieved successfully", "success", HttpStatus.OK.value(), members);
         return new ResponseEntity<ApiResponse<List<MemberDTO>>>(response, HttpStatus.OK);
     }
 
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMembers() {
+        StreamingResponseBody body = memberService::exportMembers;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("{id}")
     public ResponseEntity<ApiResponse<MemberDTO>> getMember(@PathVariable("id")Long id) {
         MemberDTO member = memberService.getMember(id);
@@ -0,0 +1,4 @@
+package com.example.demo.dto.author;
+
+public record AuthorSummaryDTO(Long id, String name) {
+}
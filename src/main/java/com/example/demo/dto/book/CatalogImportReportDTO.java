@@ -0,0 +1,11 @@
+package com.example.demo.dto.book;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalog import. {@code errors} lists the first rejected records as
+ * {@code "line N: reason"}; {@code rejected} counts all of them.
+ */
+public record CatalogImportReportDTO(long records, long booksCreated, long authorsCreated, long duplicates, long rejected,
+                                     List<String> errors, long elapsedMillis) {
+}
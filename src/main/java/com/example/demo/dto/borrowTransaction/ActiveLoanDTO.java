@@ -0,0 +1,4 @@
+package com.example.demo.dto.borrowTransaction;
+
+public record ActiveLoanDTO(Long memberId, Long bookId) {
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto.borrowTransaction;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a batch borrow or return. {@code id} is the book id for a borrow and the
+ * transaction id for a return; {@code transaction} is only set when {@code status} is "success".
+ */
+public record BatchItemResultDTO(Long id, String status, String message,
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) BorrowTransactionDTO transaction) {
+    public static BatchItemResultDTO success(Long id, String message, BorrowTransactionDTO transaction) {
+        return new BatchItemResultDTO(id, "success", message, transaction);
+    }
+
+    public static BatchItemResultDTO error(Long id, String message) {
+        return new BatchItemResultDTO(id, "error", message, null);
+    }
+
+    public boolean succeeded() {
+        return "success".equals(status);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto.borrowTransaction;
+
+import java.time.LocalDate;
+
+public record DueDateReminderDTO(Long transactionId, String memberEmail, String bookTitle, LocalDate dueDate) {
+}
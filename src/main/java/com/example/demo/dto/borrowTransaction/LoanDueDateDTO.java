@@ -0,0 +1,6 @@
+package com.example.demo.dto.borrowTransaction;
+
+import java.time.LocalDate;
+
+public record LoanDueDateDTO(Long transactionId, LocalDate dueDate) {
+}
@@ -1,9 +1,16 @@
 package com.example.demo.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.ZonedDateTime;
 
-public record ApiResponse<T>(String message, String status, int statusCode, T data, ZonedDateTime timestamp) {
+public record ApiResponse<T>(String message, String status, int statusCode, T data, ZonedDateTime timestamp,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
     public ApiResponse(String message, String status, int statusCode, T data) {
-        this(message, status, statusCode, data, ZonedDateTime.now());
+        this(message, status, statusCode, data, ZonedDateTime.now(), null);
+    }
+
+    public ApiResponse(String message, String status, int statusCode, T data, String nextCursor) {
+        this(message, status, statusCode, data, ZonedDateTime.now(), nextCursor);
     }
 }
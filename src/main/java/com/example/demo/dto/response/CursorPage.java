@@ -0,0 +1,6 @@
+package com.example.demo.dto.response;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
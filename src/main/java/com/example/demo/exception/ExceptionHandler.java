@@ -68,6 +68,18 @@ public class ExceptionHandler {
         return new ResponseEntity<ApiError>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handle(InvalidCursorException exception, HttpServletRequest request) {
+        ApiError error = new ApiError(exception.getMessage(), "error", HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<ApiError>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(InvalidCatalogException.class)
+    public ResponseEntity<ApiError> handle(InvalidCatalogException exception, HttpServletRequest request) {
+        ApiError error = new ApiError(exception.getMessage(), "error", HttpStatus.BAD_REQUEST.value());
+        return new ResponseEntity<ApiError>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ApiError> handle(IllegalStateException exception, HttpServletRequest request) {
         ApiError error = new ApiError(exception.getMessage(), "error", HttpStatus.BAD_REQUEST.value());
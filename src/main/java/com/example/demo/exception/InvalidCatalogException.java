@@ -0,0 +1,11 @@
+package com.example.demo.exception;
+
+public class InvalidCatalogException extends RuntimeException {
+    public InvalidCatalogException(String message) {
+        super(message);
+    }
+
+    public InvalidCatalogException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
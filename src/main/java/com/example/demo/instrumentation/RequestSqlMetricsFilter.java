@@ -0,0 +1,112 @@
+package com.example.demo.instrumentation;
+
+import com.example.demo.config.InstrumentationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per request how many SQL statements it ran ({@code request.sql.statements}) and how
+ * long it spent waiting on them ({@code request.sql.time}), tagged like
+ * {@code http.server.requests} with the method and the matched URI template.
+ * <p>
+ * A request that runs more than {@code instrumentation.query-budget} statements, or the same
+ * statement with different parameters {@code instrumentation.repeated-statement-threshold} times
+ * or more (the signature of a lazy load per row), is logged with its statements and counted in
+ * {@code request.sql.warnings}.
+ */
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestSqlMetricsFilter.class);
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final InstrumentationProperties properties;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public RequestSqlMetricsFilter(MeterRegistry meterRegistry, InstrumentationProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.close();
+            String uri = uri(request);
+            Meters endpoint = meters(request.getMethod(), uri);
+            endpoint.statements.record(stats.statements());
+            endpoint.time.record(stats.nanos(), TimeUnit.NANOSECONDS);
+            inspect(request.getMethod(), uri, stats, endpoint);
+        }
+    }
+
+    private void inspect(String method, String uri, SqlStatementStats stats, Meters endpoint) {
+        if (stats.statements() > properties.queryBudget()) {
+            endpoint.overBudget.increment();
+            logger.warn("{} {} ran {} SQL statements, over the budget of {}: {}", method, uri, stats.statements(),
+                    properties.queryBudget(), stats);
+        }
+        Map<String, Integer> repeated = stats.repeatedStatements(properties.repeatedStatementThreshold());
+        if (!repeated.isEmpty()) {
+            endpoint.repeated.increment();
+            logger.warn("{} {} repeated SQL statements, likely an N+1: {}", method, uri, repeated);
+        }
+    }
+
+    private Meters meters(String method, String uri) {
+        String key = method + ' ' + uri;
+        Meters endpoint = meters.get(key);
+        if (endpoint == null) {
+            endpoint = meters.computeIfAbsent(key, k -> new Meters(
+                    DistributionSummary.builder("request.sql.statements")
+                            .description("SQL statements run per request")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(meterRegistry),
+                    Timer.builder("request.sql.time")
+                            .description("Time per request spent executing SQL statements")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(meterRegistry),
+                    warnings(method, uri, "budget"),
+                    warnings(method, uri, "repeated")));
+        }
+        return endpoint;
+    }
+
+    private Counter warnings(String method, String uri, String reason) {
+        return Counter.builder("request.sql.warnings")
+                .description("Requests over the statement budget or repeating a statement")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN : pattern.toString();
+    }
+
+    private record Meters(DistributionSummary statements, Timer time, Counter overBudget, Counter repeated) {
+    }
+}
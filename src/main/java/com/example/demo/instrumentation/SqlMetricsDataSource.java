@@ -0,0 +1,122 @@
+package com.example.demo.instrumentation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and times the statements run through the wrapped data source, whether they come from
+ * Hibernate, {@code JdbcTemplate} or Flyway, into the current {@link SqlStatementStats}. A JDBC
+ * batch counts as one statement: it is one round trip.
+ * <p>
+ * Extends {@link DelegatingDataSource} so Spring Boot still finds the pool behind it for its
+ * {@code hikaricp.*} meters and health check.
+ * <p>
+ * Statements slower than {@code instrumentation.slow-query} are logged with their SQL, in or out
+ * of a request.
+ */
+public class SqlMetricsDataSource extends DelegatingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(SqlMetricsDataSource.class);
+
+    private final long slowQueryNanos;
+
+    public SqlMetricsDataSource(DataSource targetDataSource, Duration slowQuery) {
+        super(targetDataSource);
+        this.slowQueryNanos = slowQuery.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private <T> T wrap(Class<T> type, T target) {
+        return wrap(type, target, null);
+    }
+
+    private <T> T wrap(Class<T> type, T target, String sql) {
+        return type.cast(Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new Handler(target, sql)));
+    }
+
+    // sql is the statement a PreparedStatement was prepared with; plain statements pass theirs to execute.
+    private final class Handler implements InvocationHandler {
+        private final Object target;
+        private final String sql;
+
+        private Handler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Identity is the proxy's, so connection holders keyed by it keep working.
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+
+            if (!(target instanceof Statement) || !method.getName().startsWith("execute")) {
+                return wrapStatement(invokeTarget(method, args), args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                SqlStatementStats stats = SqlStatementStats.current();
+                if (stats != null) {
+                    stats.executed(executed, elapsed);
+                }
+                if (elapsed > slowQueryNanos) {
+                    logger.warn("Slow SQL statement took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsed), executed);
+                }
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object wrapStatement(Object result, Object[] args) {
+            if (!(target instanceof Connection) || !(result instanceof Statement)) {
+                return result;
+            }
+            String prepared = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, statement, prepared);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, statement, prepared);
+            }
+            return wrap(Statement.class, (Statement) result);
+        }
+    }
+}
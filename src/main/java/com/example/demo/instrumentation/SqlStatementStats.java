@@ -0,0 +1,98 @@
+package com.example.demo.instrumentation;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed and time spent in JDBC by the request the current thread is serving.
+ * {@link RequestSqlMetricsFilter} opens it around each request and {@link SqlMetricsDataSource}
+ * adds to it; outside a request nothing is collected.
+ * <p>
+ * Tests open their own around the calls whose statements they want to pin; the stats of a request
+ * served inside it count towards both.
+ */
+public final class SqlStatementStats implements AutoCloseable {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final SqlStatementStats parent;
+    // Executions per SQL text; Hibernate binds its parameters, so an N+1 repeats one text exactly.
+    private final Map<String, Integer> bySql = new HashMap<>();
+    private int statements;
+    private long nanos;
+
+    private SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementStats open() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    void executed(String sql, long elapsedNanos) {
+        for (SqlStatementStats stats = this; stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+            if (sql != null) {
+                stats.bySql.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * Statements run at least {@code minimum} times, most repeated first. Statements that differ
+     * only in their literals or in the length of an {@code IN} list count as the same one.
+     */
+    public Map<String, Integer> repeatedStatements(int minimum) {
+        Map<String, Integer> normalized = new HashMap<>();
+        bySql.forEach((sql, count) -> normalized.merge(normalize(sql), count, Integer::sum));
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        normalized.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minimum)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return IN_LIST.matcher(normalized).replaceAll("(?)");
+    }
+
+    /** The count and every statement with how often it ran, for logs and assertion messages. */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(statements).append(" statement(s)");
+        repeatedStatements(1).forEach((sql, count) -> text.append("\n  ").append(count).append("x ").append(sql));
+        return text.toString();
+    }
+}
@@ -1,39 +1,37 @@
 package com.example.demo.jobs.borrowTransaction;
 
-import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
-import com.example.demo.jobs.mail.MailJob;
-import com.example.demo.model.borrowTransaction.BorrowTransaction;
-import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
-import com.example.demo.service.borrowTransaction.BorrowTransactionService;
+import com.example.demo.model.reminder.ReminderCheckpoint;
+import com.example.demo.repository.reminder.ReminderCheckpointRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.List;
 
+// Nightly fallback for when per-loan timers (DueDateEventScheduler) are switched off.
 @Component
+@ConditionalOnProperty(prefix = "due-date-events", name = "enabled", havingValue = "false")
 public class BorrowTransactionJob {
     @Autowired
-    private BorrowTransactionService borrowTransactionService;
+    private DueDateReminderPipeline dueDateReminderPipeline;
 
     @Autowired
-    private MailJob mailJob;
+    private ReminderCheckpointRepository reminderCheckpointRepository;
 
     @Scheduled(cron = "0 59 23 * * ?")
     public void sendDueDateReminders() {
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<BorrowTransactionDTO> transactions = borrowTransactionService.getTransactionsByDueDate(tomorrow);
-
-        for (BorrowTransactionDTO transaction : transactions) {
-            String to = transaction.memberEmail();
-            String subject = "Reminder: Item due tomorrow!";
-            String body = "Hi,\n\nThis is a reminder that the item '" + transaction.bookTitle() +
-                    "' is due on " + transaction.dueDate() + ".\n\nPlease return it on time.\n\nThanks.";
+        dueDateReminderPipeline.run(LocalDate.now().plusDays(1));
+    }
 
-            mailJob.sendEmail(to, subject, body);
+    // A run cut short by a crash or redeploy is picked up from its checkpoint on the next start
+    // rather than waiting for tomorrow's schedule, which would be for a different due date.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedReminders() {
+        for (ReminderCheckpoint checkpoint : reminderCheckpointRepository.findByCompletedAtIsNullAndDueDateGreaterThanEqual(LocalDate.now())) {
+            dueDateReminderPipeline.run(checkpoint.getDueDate());
         }
-
-        System.out.println("Sent " + transactions.size() + " due date reminder(s) for " + tomorrow);
     }
 }
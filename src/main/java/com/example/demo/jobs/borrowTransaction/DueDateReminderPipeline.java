@@ -0,0 +1,131 @@
+package com.example.demo.jobs.borrowTransaction;
+
+import com.example.demo.config.ReminderProperties;
+import com.example.demo.dto.borrowTransaction.DueDateReminderDTO;
+import com.example.demo.model.reminder.ReminderCheckpoint;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.repository.reminder.ReminderCheckpointRepository;
+import com.example.demo.service.outbox.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Queues the reminders for one due date. Due transactions are read from a database cursor in id
+ * order and written to the mail outbox in chunks, each in one transaction with the checkpoint
+ * recording the highest id it covers. A run that dies resumes after the last committed chunk and
+ * never queues a reminder twice; sending is left to {@code MailOutboxJob}.
+ */
+@Component
+public class DueDateReminderPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(DueDateReminderPipeline.class);
+    private final BorrowTransactionRepository borrowTransactionRepository;
+    private final ReminderCheckpointRepository reminderCheckpointRepository;
+    private final OutboxService outboxService;
+    private final ReminderProperties properties;
+    private final TransactionTemplate cursorTransaction;
+    private final TransactionTemplate chunkTransaction;
+    private final Counter queuedCounter;
+    private final Timer runTimer;
+
+    public DueDateReminderPipeline(BorrowTransactionRepository borrowTransactionRepository,
+                                   ReminderCheckpointRepository reminderCheckpointRepository, OutboxService outboxService,
+                                   ReminderProperties properties, PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.borrowTransactionRepository = borrowTransactionRepository;
+        this.reminderCheckpointRepository = reminderCheckpointRepository;
+        this.outboxService = outboxService;
+        this.properties = properties;
+
+        this.cursorTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTransaction.setReadOnly(true);
+        // Chunks must commit while the cursor's read-only transaction is still open.
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.queuedCounter = Counter.builder("reminders.queued")
+                .description("Due date reminders written to the mail outbox")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reminders.run")
+                .description("Time to queue every reminder for a due date")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues every outstanding reminder for {@code dueDate}. Returns the checkpoint as left by this
+     * run; a date that has already completed is not queued again.
+     */
+    public synchronized ReminderCheckpoint run(LocalDate dueDate) {
+        ReminderCheckpoint checkpoint = reminderCheckpointRepository.findById(dueDate)
+                .orElseGet(() -> new ReminderCheckpoint(dueDate));
+        if (checkpoint.getCompletedAt() != null) {
+            return checkpoint;
+        }
+
+        long startedAt = System.nanoTime();
+        long queuedBefore = checkpoint.getQueued();
+        cursorTransaction.executeWithoutResult(status -> {
+            try (Stream<DueDateReminderDTO> due = borrowTransactionRepository.streamDueReminders(dueDate, checkpoint.getLastTransactionId())) {
+                List<DueDateReminderDTO> chunk = new ArrayList<>(properties.chunkSize());
+                Iterator<DueDateReminderDTO> iterator = due.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == properties.chunkSize()) {
+                        queueChunk(chunk, checkpoint);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    queueChunk(chunk, checkpoint);
+                }
+            }
+        });
+
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        ReminderCheckpoint completed = chunkTransaction.execute(status -> reminderCheckpointRepository.save(checkpoint));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        runTimer.record(elapsed);
+        long queued = completed.getQueued() - queuedBefore;
+        logger.info("Queued {} due date reminder(s) for {} in {} ms ({}/s)", queued, dueDate, elapsed.toMillis(),
+                String.format("%.1f", queued * 1_000_000_000.0 / Math.max(1, elapsed.toNanos())));
+        return completed;
+    }
+
+    private void queueChunk(List<DueDateReminderDTO> chunk, ReminderCheckpoint checkpoint) {
+        chunkTransaction.executeWithoutResult(status -> {
+            long queued = 0;
+            for (DueDateReminderDTO reminder : chunk) {
+                if (queue(reminder)) {
+                    queued++;
+                }
+            }
+            checkpoint.setLastTransactionId(chunk.get(chunk.size() - 1).transactionId());
+            checkpoint.setQueued(checkpoint.getQueued() + queued);
+            reminderCheckpointRepository.save(checkpoint);
+            queuedCounter.increment(queued);
+        });
+    }
+
+    private boolean queue(DueDateReminderDTO reminder) {
+        String subject = "Reminder: Item due tomorrow!";
+        String body = "Hi,\n\nThis is a reminder that the item '" + reminder.bookTitle() +
+                "' is due on " + reminder.dueDate() + ".\n\nPlease return it on time.\n\nThanks.";
+        return outboxService.enqueue("reminder." + reminder.transactionId() + "." + reminder.dueDate(),
+                reminder.memberEmail(), subject, body);
+    }
+}
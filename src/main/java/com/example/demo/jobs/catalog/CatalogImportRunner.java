@@ -0,0 +1,49 @@
+package com.example.demo.jobs.catalog;
+
+import com.example.demo.config.CatalogImportProperties;
+import com.example.demo.dto.book.CatalogImportReportDTO;
+import com.example.demo.service.catalog.CatalogFormat;
+import com.example.demo.service.catalog.CatalogImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line import: started with {@code --catalog-import.file=<path>}, imports the file once
+ * the application is up and then shuts it down, exiting with 1 if any record was rejected.
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog-import", name = "file")
+public class CatalogImportRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportRunner.class);
+    private final CatalogImportService catalogImportService;
+    private final CatalogImportProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    public CatalogImportRunner(CatalogImportService catalogImportService, CatalogImportProperties properties,
+                               ConfigurableApplicationContext context) {
+        this.catalogImportService = catalogImportService;
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(properties.file());
+        CatalogImportReportDTO report;
+        try (InputStream catalog = Files.newInputStream(file)) {
+            report = catalogImportService.importCatalog(catalog, CatalogFormat.fromFileName(file.getFileName().toString()));
+        }
+        report.errors().forEach(error -> logger.warn("Rejected {}", error));
+        System.exit(SpringApplication.exit(context, () -> report.rejected() == 0 ? 0 : 1));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.jobs.mail;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.model.outbox.OutboxMessage;
+import com.example.demo.model.outbox.Status;
+import com.example.demo.repository.outbox.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains the mail outbox. Each pass claims a batch of due messages, sends them over the pooled
+ * SMTP sessions of {@link PooledMailSender} and records the outcome: sent, retried later with
+ * exponential backoff, or dead once {@code outbox.max-attempts} is reached. Delivery is at least once; the Message-ID derived from
+ * the delivery key lets a duplicate be recognised downstream.
+ */
+@Component
+public class MailOutboxJob {
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxJob.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final PooledMailSender pooledMailSender;
+    private final OutboxProperties properties;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Timer sendTimer;
+
+    public MailOutboxJob(OutboxMessageRepository outboxMessageRepository, PooledMailSender pooledMailSender,
+                         OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.pooledMailSender = pooledMailSender;
+        this.properties = properties;
+
+        this.sentCounter = outcomeCounter(meterRegistry, "sent");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.deadCounter = outcomeCounter(meterRegistry, "dead");
+        this.sendTimer = Timer.builder("outbox.send")
+                .description("Time to hand one batch of outbox messages to the mail server")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", outboxMessageRepository, repository -> repository.countByStatus(Status.PENDING))
+                .description("Messages waiting to be sent or retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        while (dispatchBatch() == properties.batchSize()) {
+            // A full batch means more are probably due; keep going instead of waiting a poll interval.
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due messages; returns how many were claimed.
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = outboxMessageRepository.findDueIds(now, PageRequest.of(0, properties.batchSize()));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        String token = UUID.randomUUID().toString();
+        if (outboxMessageRepository.claim(due, token, now, now.plus(properties.claimTimeout())) == 0) {
+            return 0;
+        }
+        List<OutboxMessage> claimed = outboxMessageRepository.findByClaimToken(token);
+
+        List<OutgoingMail> mails = new ArrayList<>(claimed.size());
+        for (OutboxMessage message : claimed) {
+            String messageId = "<" + message.getDeliveryKey() + "@" + properties.messageIdDomain() + ">";
+            mails.add(new OutgoingMail(message.getRecipient(), message.getSubject(), message.getBody(), messageId));
+        }
+        List<MailResult> results = sendTimer.record(() -> pooledMailSender.sendAll(mails));
+
+        List<Long> sent = new ArrayList<>(claimed.size());
+        List<OutboxMessage> failed = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            MailResult result = results.get(i);
+            if (result.delivered()) {
+                sent.add(claimed.get(i).getId());
+            } else {
+                failed.add(scheduleRetry(claimed.get(i), result.error()));
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxMessageRepository.markSent(sent, token, LocalDateTime.now());
+            sentCounter.increment(sent.size());
+        }
+        if (!failed.isEmpty()) {
+            outboxMessageRepository.saveAll(failed);
+        }
+        return claimed.size();
+    }
+
+    private OutboxMessage scheduleRetry(OutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setClaimToken(null);
+        String reason = String.valueOf(error.getMessage());
+        message.setLastError(reason.length() > MAX_ERROR_LENGTH ? reason.substring(0, MAX_ERROR_LENGTH) : reason);
+
+        if (attempts >= properties.maxAttempts()) {
+            message.setStatus(Status.DEAD);
+            deadCounter.increment();
+            logger.warn("Gave up on outbox message {} after {} attempt(s): {}", message.getDeliveryKey(), attempts, reason);
+        } else {
+            message.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            retriedCounter.increment();
+        }
+        return message;
+    }
+
+    // Exponential backoff with jitter, so messages that failed together do not retry in lockstep.
+    private Duration backoff(int attempts) {
+        long initial = properties.initialBackoff().toMillis();
+        long ceiling = properties.maxBackoff().toMillis();
+        long delay = initial << Math.min(attempts - 1, 30);
+        delay = delay < initial ? ceiling : Math.min(delay, ceiling);
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("outbox.dispatched")
+                .description("Outbox messages by delivery outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.jobs.mail;
+
+/**
+ * Outcome of one message in a {@link PooledMailSender#sendAll} call; {@code error} is {@code null}
+ * when the server accepted it.
+ */
+public record MailResult(OutgoingMail mail, Exception error) {
+    public boolean delivered() {
+        return error == null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.jobs.mail;
+
+/**
+ * A plain-text email for {@link PooledMailSender#sendAll}; {@code messageId} may be {@code null}
+ * to let the mail library generate one.
+ */
+public record OutgoingMail(String to, String subject, String body, String messageId) {
+}
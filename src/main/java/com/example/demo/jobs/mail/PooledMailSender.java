@@ -0,0 +1,191 @@
+package com.example.demo.jobs.mail;
+
+import com.example.demo.config.MailPoolProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends batches of mail over a small pool of SMTP sessions that stay connected between calls, so
+ * the TCP, STARTTLS and AUTH handshakes are paid once per session rather than once per message as
+ * with {@code JavaMailSender.send}. A batch is split across the sessions and each slice is sent
+ * back to back on its own connection.
+ */
+@Component
+public class PooledMailSender {
+    private static final String ENCODING = "UTF-8";
+
+    private final MailProperties mailProperties;
+    private final MailPoolProperties poolProperties;
+    private final Session session;
+    private final BlockingQueue<PooledTransport> transports;
+    private final ExecutorService workers;
+
+    public PooledMailSender(MailProperties mailProperties, MailPoolProperties poolProperties) {
+        this.mailProperties = mailProperties;
+        this.poolProperties = poolProperties;
+
+        Properties properties = new Properties();
+        properties.putAll(mailProperties.getProperties());
+        this.session = Session.getInstance(properties);
+
+        this.transports = new ArrayBlockingQueue<>(poolProperties.size());
+        for (int i = 0; i < poolProperties.size(); i++) {
+            transports.add(new PooledTransport());
+        }
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolProperties.size(), runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends every message and reports each outcome, in the order given. A message the server
+     * rejects does not stop the rest of the batch.
+     */
+    public List<MailResult> sendAll(Collection<OutgoingMail> mails) {
+        List<OutgoingMail> pending = List.copyOf(mails);
+        int slices = Math.min(poolProperties.size(), pending.size());
+        List<CompletableFuture<MailResult[]>> sends = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int first = slice;
+            sends.add(CompletableFuture.supplyAsync(() -> sendSlice(pending, first, slices), workers));
+        }
+
+        MailResult[] results = new MailResult[pending.size()];
+        for (int slice = 0; slice < slices; slice++) {
+            MailResult[] sent = sends.get(slice).join();
+            for (int i = slice; i < pending.size(); i += slices) {
+                results[i] = sent[i];
+            }
+        }
+        return List.of(results);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        transports.forEach(PooledTransport::close);
+    }
+
+    // Messages first, first + slices, ... all go out on one session.
+    private MailResult[] sendSlice(List<OutgoingMail> mails, int first, int slices) {
+        MailResult[] results = new MailResult[mails.size()];
+        PooledTransport transport = borrow();
+        try {
+            for (int i = first; i < mails.size(); i += slices) {
+                results[i] = new MailResult(mails.get(i), transport.send(mails.get(i)));
+            }
+        } finally {
+            transports.add(transport);
+        }
+        return results;
+    }
+
+    private PooledTransport borrow() {
+        try {
+            return transports.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an SMTP session", e);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(message, ENCODING);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.body());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        // saveChanges() generates a fresh Message-ID; put the caller's back as JavaMailSender does.
+        if (mail.messageId() != null) {
+            message.setHeader("Message-ID", mail.messageId());
+        }
+        return message;
+    }
+
+    private final class PooledTransport {
+        private Transport transport;
+        private int sent;
+        private long lastUsed;
+
+        Exception send(OutgoingMail mail) {
+            MimeMessage message;
+            try {
+                message = toMimeMessage(mail);
+            } catch (MessagingException e) {
+                return e;
+            }
+
+            // A session the server has silently dropped only shows up on use: reconnect and try once more.
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    connectIfStale();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    sent++;
+                    lastUsed = System.nanoTime();
+                    return null;
+                } catch (SendFailedException e) {
+                    return e; // the server rejected this message, the session itself is fine
+                } catch (MessagingException | IllegalStateException e) {
+                    close();
+                    if (attempt > 0) {
+                        return e;
+                    }
+                }
+            }
+        }
+
+        private void connectIfStale() throws MessagingException {
+            boolean idle = System.nanoTime() - lastUsed > poolProperties.idleTimeout().toNanos();
+            if (transport != null && (sent >= poolProperties.messagesPerSession() || idle)) {
+                close();
+            }
+            if (transport == null) {
+                transport = session.getTransport(mailProperties.getProtocol());
+                // Blank credentials mean no SMTP AUTH, as in JavaMailSenderImpl; passing "" would
+                // make JavaMail attempt it anyway.
+                String username = StringUtils.hasLength(mailProperties.getUsername()) ? mailProperties.getUsername() : null;
+                String password = StringUtils.hasLength(mailProperties.getPassword()) ? mailProperties.getPassword() : null;
+                transport.connect(mailProperties.getHost(), mailProperties.getPort() == null ? -1 : mailProperties.getPort(),
+                        username, password);
+                sent = 0;
+                lastUsed = System.nanoTime();
+            }
+        }
+
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException ignored) {
+                    // the connection is being discarded either way
+                }
+                transport = null;
+            }
+        }
+    }
+}
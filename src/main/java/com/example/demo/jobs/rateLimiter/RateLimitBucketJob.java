@@ -0,0 +1,25 @@
+package com.example.demo.jobs.rateLimiter;
+
+import com.example.demo.service.rateLimiter.RateLimiterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitBucketJob {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitBucketJob.class);
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void purgeIdleBuckets() {
+        int purged = rateLimiterService.purgeIdleBuckets();
+        if (purged > 0) {
+            logger.info("Purged {} idle rate limit bucket(s)", purged);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated id from the named database sequence, reserving a block of ids per call
+ * (see {@link PooledSequenceGenerator}). Unlike {@code GenerationType.IDENTITY} the id is known
+ * before the row is written, so Hibernate can batch the inserts.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+    /** Name of the sequence, e.g. {@code books_seq}. */
+    String value();
+}
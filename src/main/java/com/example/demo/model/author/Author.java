@@ -1,8 +1,13 @@
 package com.example.demo.model.author;
 
+import com.example.demo.model.PooledSequence;
 import com.example.demo.model.book.Book;
+import com.example.demo.search.book.SearchTerms;
+import com.example.demo.uniqueKey.UniqueKeyListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,9 +17,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "authors")
+@EntityListeners(UniqueKeyListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("authors_seq")
     private Long id;
     @Column(nullable = false)
     private String name;
@@ -30,6 +38,15 @@ public class Author {
     private LocalDateTime createdAt;
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    // The name as BookSearchIndex tokenizes it, for BookSpecification.matches.
+    @Column(name = "search_name", length = 512)
+    private String searchName;
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = SearchTerms.asText(name);
+    }
 
     public Author() {}
 
@@ -1,9 +1,14 @@
 package com.example.demo.model.book;
 
+import com.example.demo.model.PooledSequence;
 import com.example.demo.model.author.Author;
+import com.example.demo.search.book.SearchTerms;
+import com.example.demo.uniqueKey.UniqueKeyListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,9 +17,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "books")
+@EntityListeners(UniqueKeyListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("books_seq")
     private Long id;
     @Column(nullable = false)
     private String title;
@@ -26,6 +34,7 @@ public class Book {
     private Integer totalCopies;
     @JsonManagedReference
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books.authors")
     @JoinTable(
         name = "author_book",  // Join table name
         joinColumns = @JoinColumn(name = "book_id"),
@@ -36,6 +45,15 @@ public class Book {
     private LocalDateTime createdAt;
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    // The title as BookSearchIndex tokenizes it, for BookSpecification.matches.
+    @Column(name = "search_title", length = 512)
+    private String searchTitle;
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchTitle() {
+        searchTitle = SearchTerms.asText(title);
+    }
 
     public Long getId() {
         return id;
@@ -1,16 +1,24 @@
 package com.example.demo.model.borrowTransaction;
 
+import com.example.demo.model.PooledSequence;
 import com.example.demo.model.book.Book;
 import com.example.demo.model.member.Member;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
 
+// Mirrors db/migration/V2__borrow_transactions_indexes.sql and V4__borrow_guards.sql so schemas
+// generated by Hibernate in tests have them too.
 @Entity
-@Table(name = "borrow_transactions")
+@Table(name = "borrow_transactions", indexes = {
+        @Index(name = "idx_borrow_transactions_member_status", columnList = "member_id, status"),
+        @Index(name = "idx_borrow_transactions_due_date_status", columnList = "due_date, status")
+}, uniqueConstraints = @UniqueConstraint(name = BorrowTransaction.OPEN_LOAN_KEY, columnNames = {"member_id", "open_book_id"}))
 public class BorrowTransaction {
+    public static final String OPEN_LOAN_KEY = "uk_borrow_transactions_member_open_book";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("borrow_transactions_seq")
     private Long id;
     @ManyToOne
     @JoinColumn(name = "book_id", nullable = false)
@@ -27,6 +35,16 @@ public class BorrowTransaction {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Status status;
+    // book_id while the loan is open and null once returned, so OPEN_LOAN_KEY allows one open loan
+    // of a book per member whichever instance took it.
+    @Column(name = "open_book_id")
+    private Long openBookId;
+
+    @PrePersist
+    @PreUpdate
+    void syncOpenBookId() {
+        openBookId = status == Status.BORROWED ? book.getId() : null;
+    }
 
     public Long getId() {
         return id;
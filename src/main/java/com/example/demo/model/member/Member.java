@@ -1,6 +1,9 @@
 package com.example.demo.model.member;
 
+import com.example.demo.model.PooledSequence;
+import com.example.demo.uniqueKey.UniqueKeyListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -8,9 +11,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "members")
+@EntityListeners(UniqueKeyListener.class)
 public class Member {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("members_seq")
     private Long id;
     @Column(nullable = false)
     private String name;
@@ -26,6 +30,11 @@ public class Member {
     private LocalDateTime createdAt;
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    // Moved only by the guarded updates in MemberRepository; never written from the entity, so
+    // saving a member cannot overwrite a concurrent borrow's count.
+    @ColumnDefault("0")
+    @Column(name = "active_loans", nullable = false, insertable = false, updatable = false)
+    private int activeLoans;
 
     public Member() {}
 
@@ -92,4 +101,8 @@ public class Member {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public int getActiveLoans() {
+        return activeLoans;
+    }
 }
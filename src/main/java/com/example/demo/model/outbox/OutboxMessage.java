@@ -0,0 +1,140 @@
+package com.example.demo.model.outbox;
+
+import com.example.demo.model.PooledSequence;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email written in the same transaction as the change that caused it and delivered later by
+ * {@code MailOutboxJob}. {@code deliveryKey} identifies the event, so enqueueing the same event
+ * twice is a no-op, and is sent as the Message-ID so a retried delivery can be recognised.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = @Index(name = "idx_outbox_messages_status_next_attempt", columnList = "status, next_attempt_at"))
+public class OutboxMessage {
+    @Id
+    @PooledSequence("outbox_messages_seq")
+    private Long id;
+    @Column(name = "delivery_key", nullable = false, unique = true)
+    private String deliveryKey;
+    @Column(nullable = false)
+    private String recipient;
+    @Column(nullable = false)
+    private String subject;
+    @Column(nullable = false, length = 4000)
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public OutboxMessage() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDeliveryKey() {
+        return deliveryKey;
+    }
+
+    public void setDeliveryKey(String deliveryKey) {
+        this.deliveryKey = deliveryKey;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.model.outbox;
+
+public enum Status {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,55 @@
+package com.example.demo.model.rateLimiter;
+
+import jakarta.persistence.*;
+
+/**
+ * Shared token bucket state for {@code rate-limiter.mode: jdbc}. Rows are only ever changed by
+ * compare-and-swap on {@code version}, never through the persistence context.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+public class RateLimitBucket {
+    @Id
+    @Column(length = 255)
+    private String id;
+    @Column(nullable = false)
+    private long tokens;
+    @Column(nullable = false)
+    private long refilledAt;
+    @Column(nullable = false)
+    private long version;
+
+    public RateLimitBucket() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(long tokens) {
+        this.tokens = tokens;
+    }
+
+    public long getRefilledAt() {
+        return refilledAt;
+    }
+
+    public void setRefilledAt(long refilledAt) {
+        this.refilledAt = refilledAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.model.rateLimiter;
+
+/**
+ * Detached snapshot of a {@link RateLimitBucket} row, read without enlisting the entity in the
+ * current persistence context so a retry always sees the latest committed version.
+ */
+public record RateLimitBucketState(long tokens, long refilledAt, long version) {
+}
@@ -0,0 +1,62 @@
+package com.example.demo.model.reminder;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the reminder run for one due date. Transactions are processed in id order, so
+ * everything up to {@code lastTransactionId} has been handled and a restarted run resumes after it.
+ */
+@Entity
+@Table(name = "reminder_checkpoints")
+public class ReminderCheckpoint {
+    @Id
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+    @Column(name = "last_transaction_id", nullable = false)
+    private long lastTransactionId;
+    @Column(nullable = false)
+    private long queued;
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public ReminderCheckpoint() {}
+
+    public ReminderCheckpoint(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public long getQueued() {
+        return queued;
+    }
+
+    public void setQueued(long queued) {
+        this.queued = queued;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
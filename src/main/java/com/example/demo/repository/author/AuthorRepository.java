@@ -1,8 +1,30 @@
 package com.example.demo.repository.author;
 
 import com.example.demo.model.author.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author> {
     boolean existsByEmail(String email);
+
+    List<Author> findAllByEmailIn(Collection<String> emails);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    Stream<Author> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.email FROM Author a")
+    Stream<String> streamEmails();
 }
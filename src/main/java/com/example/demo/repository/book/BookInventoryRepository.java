@@ -0,0 +1,13 @@
+package com.example.demo.repository.book;
+
+import java.util.List;
+
+/**
+ * Inventory updates for many books in one JDBC batch. Each returns one update count per id, in
+ * order: 0 means the book was missing or, for a decrement, had no copy left.
+ */
+public interface BookInventoryRepository {
+    int[] decrementAvailableCopies(List<Long> bookIds);
+
+    int[] incrementAvailableCopies(List<Long> bookIds);
+}
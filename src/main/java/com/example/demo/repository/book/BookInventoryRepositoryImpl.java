@@ -0,0 +1,59 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.model.book.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Same conditional statements as BookRepository's single-book updates, sent as one batch on the
+// transaction's connection. Counts are taken as exact, which H2 and the usual drivers report.
+class BookInventoryRepositoryImpl implements BookInventoryRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    BookInventoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] decrementAvailableCopies(List<Long> bookIds) {
+        return update("UPDATE books SET available_copies = available_copies - 1, updated_at = CURRENT_TIMESTAMP " +
+                "WHERE id = ? AND available_copies > 0", bookIds);
+    }
+
+    @Override
+    public int[] incrementAvailableCopies(List<Long> bookIds) {
+        return update("UPDATE books SET available_copies = available_copies + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?", bookIds);
+    }
+
+    private int[] update(String sql, List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return new int[0];
+        }
+        entityManager.flush();
+        int[] counts = jdbcTemplate.batchUpdate(sql, bookIds, bookIds.size(), (statement, id) -> statement.setLong(1, id))[0];
+        evictFromSecondLevelCache(bookIds);
+        return counts;
+    }
+
+    // Hibernate does this itself for the JPQL updates. Evicted again once the transaction ends so a
+    // read of the old row in the meantime cannot leave it cached.
+    private void evictFromSecondLevelCache(List<Long> bookIds) {
+        Runnable evict = () -> bookIds.forEach(id -> entityManager.getEntityManagerFactory().getCache().evict(Book.class, id));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
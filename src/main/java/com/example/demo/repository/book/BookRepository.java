@@ -1,12 +1,56 @@
 package com.example.demo.repository.book;
 
 import com.example.demo.model.book.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookInventoryRepository {
+    // Query cache entries are dropped by Hibernate whenever books or author_book change,
+    // including through the bulk inventory updates below.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByIsbn(String isbn);
+
+    @EntityGraph(attributePaths = "authors")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Book> findByAuthors_Id(Long authorId);
+
+    // Second step of paged reads: the page query selects only the books, this one fetches their
+    // authors in a single join so serializing a page never falls back to per-book lazy loads.
+    @EntityGraph(attributePaths = "authors")
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids")
+    List<Book> findAllWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // One lookup per import chunk instead of an existsByIsbn per book.
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findIsbnsIn(@Param("isbns") Collection<String> isbns);
+
+    // Loads the ISBN uniqueness filter.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.isbn FROM Book b")
+    Stream<String> streamIsbns();
+
+    // Single-statement conditional updates: the row lock taken by the UPDATE serializes concurrent
+    // borrowers, so availableCopies can never be driven below zero by a read-modify-write race.
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, b.updatedAt = CURRENT_TIMESTAMP WHERE b.id = :id AND b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.updatedAt = CURRENT_TIMESTAMP WHERE b.id = :id")
+    int incrementAvailableCopies(@Param("id") Long id);
 }
@@ -0,0 +1,12 @@
+package com.example.demo.repository.borrowTransaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BorrowTransactionBatchRepository {
+    /**
+     * {@link BorrowTransactionRepository#markReturned} for many transactions in one JDBC batch.
+     * Returns one update count per id, in order; 0 means it was not (or no longer) borrowed.
+     */
+    int[] markReturned(List<Long> ids, LocalDate returnDate);
+}
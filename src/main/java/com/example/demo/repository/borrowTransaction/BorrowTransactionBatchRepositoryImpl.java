@@ -0,0 +1,38 @@
+package com.example.demo.repository.borrowTransaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+class BorrowTransactionBatchRepositoryImpl implements BorrowTransactionBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    BorrowTransactionBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Flushes before and clears after, like the single markReturned, so loaded transactions are
+    // detached rather than written back over the batch.
+    @Override
+    public int[] markReturned(List<Long> ids, LocalDate returnDate) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        entityManager.flush();
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE borrow_transactions SET status = 'RETURNED', return_date = ?, open_book_id = NULL WHERE id = ? AND status = 'BORROWED'",
+                ids, ids.size(), (statement, id) -> {
+                    statement.setDate(1, Date.valueOf(returnDate));
+                    statement.setLong(2, id);
+                })[0];
+        entityManager.clear();
+        return counts;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BorrowTransactionDTORepository {
+    /**
+     * The page of transactions matching {@code specification}, selected straight into DTOs with
+     * one join query: no entities are loaded, so nothing is managed or dirty checked. Loans due
+     * before {@code today} and not returned are flagged overdue by the query. No count query is
+     * run.
+     */
+    List<BorrowTransactionDTO> findAllDTOs(Specification<BorrowTransaction> specification, Pageable pageable, LocalDate today);
+}
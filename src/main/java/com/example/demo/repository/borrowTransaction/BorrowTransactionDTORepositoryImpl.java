@@ -0,0 +1,65 @@
+package com.example.demo.repository.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.model.member.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Spring Data cannot combine a Specification with a constructor projection, so the query is built here.
+class BorrowTransactionDTORepositoryImpl implements BorrowTransactionDTORepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BorrowTransactionDTO> findAllDTOs(Specification<BorrowTransaction> specification, Pageable pageable, LocalDate today) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BorrowTransactionDTO> query = criteriaBuilder.createQuery(BorrowTransactionDTO.class);
+        Root<BorrowTransaction> root = query.from(BorrowTransaction.class);
+        Join<BorrowTransaction, Book> book = root.join("book");
+        Join<BorrowTransaction, Member> member = root.join("member");
+
+        query.select(criteriaBuilder.construct(BorrowTransactionDTO.class,
+                root.get("id"),
+                book.get("id"),
+                book.get("title"),
+                member.get("id"),
+                member.get("name"),
+                member.get("email"),
+                root.get("borrowDate"),
+                root.get("dueDate"),
+                root.get("returnDate"),
+                root.get("status"),
+                criteriaBuilder.<Boolean>selectCase()
+                        .when(criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("status"), Status.BORROWED),
+                                criteriaBuilder.lessThan(root.<LocalDate>get("dueDate"), today)), criteriaBuilder.literal(true))
+                        .otherwise(criteriaBuilder.literal(false))));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        TypedQuery<BorrowTransactionDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -1,23 +1,98 @@
 package com.example.demo.repository.borrowTransaction;
 
+import com.example.demo.dto.borrowTransaction.ActiveLoanDTO;
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.dto.borrowTransaction.DueDateReminderDTO;
+import com.example.demo.dto.borrowTransaction.LoanDueDateDTO;
 import com.example.demo.model.borrowTransaction.BorrowTransaction;
-import com.example.demo.model.borrowTransaction.Status;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BorrowTransactionRepository extends JpaRepository<BorrowTransaction, Long> {
-    @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.member.id = :memberId AND bt.book.id = :bookId AND bt.status = :status")
-    Optional<BorrowTransaction> findByMemberIdAndBookIdAndStatus(@Param("memberId") Long memberId, @Param("bookId") Long bookId, @Param("status") Status status);
+public interface BorrowTransactionRepository extends JpaRepository<BorrowTransaction, Long>, JpaSpecificationExecutor<BorrowTransaction>,
+        BorrowTransactionBatchRepository, BorrowTransactionDTORepository {
+    // The columns of BorrowTransactionDTO, read in one join; loans due before :today and not yet
+    // returned are overdue.
+    String DTO_SELECT = "SELECT new com.example.demo.dto.borrowTransaction.BorrowTransactionDTO(" +
+            "bt.id, b.id, b.title, m.id, m.name, m.email, bt.borrowDate, bt.dueDate, bt.returnDate, bt.status, " +
+            "CASE WHEN bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED AND bt.dueDate < :today THEN true ELSE false END) " +
+            "FROM BorrowTransaction bt JOIN bt.book b JOIN bt.member m ";
 
-    @Query("SELECT COUNT(bt) FROM BorrowTransaction bt WHERE bt.member.id = :memberId AND bt.status = :status")
-    long countByMemberIdAndStatus(@Param("memberId") Long memberId, @Param("status") Status status);
+    // Every DTO reads the book title and member name/email; Book being cacheable must not turn the
+    // join into a second select.
+    @Override
+    @EntityGraph(attributePaths = {"book", "member"})
+    Optional<BorrowTransaction> findById(Long id);
 
-    List<BorrowTransaction> findByMemberId(Long memberId);
+    // Forward-only cursor for the NDJSON export; the caller must consume it inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT bt FROM BorrowTransaction bt JOIN FETCH bt.book JOIN FETCH bt.member ORDER BY bt.id")
+    Stream<BorrowTransaction> streamAll();
 
-    List<BorrowTransaction> findByDueDate(LocalDate dueDate);
+    // Cursor for the reminder run: only the columns the email needs, resumable from a checkpointed id.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.demo.dto.borrowTransaction.DueDateReminderDTO(bt.id, m.email, b.title, bt.dueDate) " +
+            "FROM BorrowTransaction bt JOIN bt.member m JOIN bt.book b " +
+            "WHERE bt.dueDate = :dueDate AND bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED AND bt.id > :afterId " +
+            "ORDER BY bt.id")
+    Stream<DueDateReminderDTO> streamDueReminders(@Param("dueDate") LocalDate dueDate, @Param("afterId") long afterId);
+
+    // Rebuilds the due date timers on startup without loading the entities.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.demo.dto.borrowTransaction.LoanDueDateDTO(bt.id, bt.dueDate) FROM BorrowTransaction bt " +
+            "WHERE bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED AND bt.dueDate >= :dueOnOrAfter")
+    Stream<LoanDueDateDTO> streamOpenLoansDueOnOrAfter(@Param("dueOnOrAfter") LocalDate dueOnOrAfter);
+
+    // Rebuilds and cross-checks the in-memory active loan registry.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.demo.dto.borrowTransaction.ActiveLoanDTO(bt.member.id, bt.book.id) FROM BorrowTransaction bt " +
+            "WHERE bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED")
+    Stream<ActiveLoanDTO> streamActiveLoans();
+
+    @Query("SELECT new com.example.demo.dto.borrowTransaction.DueDateReminderDTO(bt.id, m.email, b.title, bt.dueDate) " +
+            "FROM BorrowTransaction bt JOIN bt.member m JOIN bt.book b " +
+            "WHERE bt.id = :id AND bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED")
+    Optional<DueDateReminderDTO> findOpenReminderById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"book", "member"})
+    @Query("SELECT bt FROM BorrowTransaction bt WHERE bt.id IN :ids")
+    List<BorrowTransaction> findAllWithBookAndMemberByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE bt.member.id = :memberId ORDER BY bt.id")
+    List<BorrowTransactionDTO> findDTOsByMemberId(@Param("memberId") Long memberId, @Param("today") LocalDate today);
+
+    @Query(DTO_SELECT + "WHERE bt.dueDate = :dueDate ORDER BY bt.id")
+    List<BorrowTransactionDTO> findDTOsByDueDate(@Param("dueDate") LocalDate dueDate, @Param("today") LocalDate today);
+
+    // Only one of several concurrent returns of the same transaction can flip BORROWED -> RETURNED,
+    // so the matching inventory increment is applied exactly once. Clearing openBookId lets the
+    // member borrow the book again.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BorrowTransaction bt SET bt.status = com.example.demo.model.borrowTransaction.Status.RETURNED, bt.returnDate = :returnDate, " +
+            "bt.openBookId = null WHERE bt.id = :id AND bt.status = com.example.demo.model.borrowTransaction.Status.BORROWED")
+    int markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
 }
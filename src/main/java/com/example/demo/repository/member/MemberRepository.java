@@ -1,8 +1,38 @@
 package com.example.demo.repository.member;
 
 import com.example.demo.model.member.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface MemberRepository extends JpaRepository<Member, Long> {
+import java.util.stream.Stream;
+
+public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecificationExecutor<Member> {
     boolean existsByEmail(String email);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Member m ORDER BY m.id")
+    Stream<Member> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT m.email FROM Member m")
+    Stream<String> streamEmails();
+
+    // The borrow limit as every instance sees it: only one of several concurrent borrows can take
+    // the last slot, since each waits on the row lock of the one before and re-checks the sum.
+    @Modifying
+    @Query("UPDATE Member m SET m.activeLoans = m.activeLoans + :count WHERE m.id = :id AND m.activeLoans + :count <= :limit")
+    int addActiveLoans(@Param("id") Long id, @Param("count") int count, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Member m SET m.activeLoans = m.activeLoans - :count WHERE m.id = :id AND m.activeLoans >= :count")
+    int removeActiveLoans(@Param("id") Long id, @Param("count") int count);
 }
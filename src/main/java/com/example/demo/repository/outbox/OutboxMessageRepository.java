@@ -0,0 +1,41 @@
+package com.example.demo.repository.outbox;
+
+import com.example.demo.model.outbox.OutboxMessage;
+import com.example.demo.model.outbox.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    boolean existsByDeliveryKey(String deliveryKey);
+
+    long countByStatus(Status status);
+
+    @Query("SELECT m.id FROM OutboxMessage m WHERE m.status = com.example.demo.model.outbox.Status.PENDING AND m.nextAttemptAt <= :now " +
+            "ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Pushing nextAttemptAt out to the claim deadline hides the rows from other dispatchers; if
+    // this one dies mid-send they become due again once the deadline passes.
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.claimToken = :token, m.nextAttemptAt = :claimedUntil " +
+            "WHERE m.id IN :ids AND m.status = com.example.demo.model.outbox.Status.PENDING AND m.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    List<OutboxMessage> findByClaimToken(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = com.example.demo.model.outbox.Status.SENT, m.sentAt = :sentAt, " +
+            "m.attempts = m.attempts + 1, m.claimToken = null, m.lastError = null WHERE m.id IN :ids AND m.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("sentAt") LocalDateTime sentAt);
+}
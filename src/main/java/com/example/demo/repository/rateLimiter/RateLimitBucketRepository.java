@@ -0,0 +1,40 @@
+package com.example.demo.repository.rateLimiter;
+
+import com.example.demo.model.rateLimiter.RateLimitBucket;
+import com.example.demo.model.rateLimiter.RateLimitBucketState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+    @Query("SELECT new com.example.demo.model.rateLimiter.RateLimitBucketState(b.tokens, b.refilledAt, b.version) FROM RateLimitBucket b WHERE b.id = :id")
+    Optional<RateLimitBucketState> findStateById(@Param("id") String id);
+
+    // Plain INSERT rather than save(): when two instances create the same bucket at once, the
+    // loser gets a duplicate key error and retries against the winner's row. The declared table
+    // keeps Hibernate from treating the native statement as touching every table and emptying the
+    // whole second-level cache on each new bucket.
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "rate_limit_buckets"))
+    @Query(value = "INSERT INTO rate_limit_buckets (id, tokens, refilled_at, version) VALUES (:id, :tokens, :refilledAt, 0)", nativeQuery = true)
+    int insert(@Param("id") String id, @Param("tokens") long tokens, @Param("refilledAt") long refilledAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RateLimitBucket b SET b.tokens = :tokens, b.refilledAt = :refilledAt, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.version = :version")
+    int compareAndSet(@Param("id") String id, @Param("version") long version, @Param("tokens") long tokens, @Param("refilledAt") long refilledAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RateLimitBucket b WHERE b.refilledAt < :cutoff")
+    int deleteRefilledBefore(@Param("cutoff") long cutoff);
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository.reminder;
+
+import com.example.demo.model.reminder.ReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, LocalDate> {
+    List<ReminderCheckpoint> findByCompletedAtIsNullAndDueDateGreaterThanEqual(LocalDate dueDate);
+}
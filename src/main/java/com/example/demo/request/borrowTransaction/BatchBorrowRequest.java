@@ -0,0 +1,19 @@
+package com.example.demo.request.borrowTransaction;
+
+import com.example.demo.validation.DueDateAfterBorrowDate;
+import com.example.demo.validation.NotFutureDate;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@DueDateAfterBorrowDate()
+public record BatchBorrowRequest(@NotNull(message = "Member ID is required") Long memberId,
+        @NotEmpty(message = "At least one book ID is required")
+        @Size(max = 50, message = "At most 50 books can be borrowed at once") List<@NotNull(message = "Book ID is required") Long> bookIds,
+        @NotNull(message = "Borrow date is required")
+        @NotFutureDate() LocalDate borrowDate,
+        LocalDate dueDate) implements BorrowPeriod {
+}
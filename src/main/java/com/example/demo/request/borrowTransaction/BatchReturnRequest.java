@@ -0,0 +1,11 @@
+package com.example.demo.request.borrowTransaction;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchReturnRequest(@NotEmpty(message = "At least one transaction ID is required")
+        @Size(max = 50, message = "At most 50 books can be returned at once") List<@NotNull(message = "Transaction ID is required") Long> transactionIds) {
+}
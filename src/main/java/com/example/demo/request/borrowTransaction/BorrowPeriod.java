@@ -0,0 +1,10 @@
+package com.example.demo.request.borrowTransaction;
+
+import java.time.LocalDate;
+
+// Shared by the single and batch borrow requests so @DueDateAfterBorrowDate can check either.
+public interface BorrowPeriod {
+    LocalDate borrowDate();
+
+    LocalDate dueDate();
+}
@@ -11,5 +11,5 @@ public record BorrowTransactionRequest(@NotNull(message = "Book ID is required")
         @NotNull(message = "Member ID is required") Long memberId,
         @NotNull(message = "Borrow date is required")
         @NotFutureDate() LocalDate borrowDate,
-        LocalDate dueDate) {
+        LocalDate dueDate) implements BorrowPeriod {
 }
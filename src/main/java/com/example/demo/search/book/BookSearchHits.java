@@ -0,0 +1,6 @@
+package com.example.demo.search.book;
+
+import java.util.List;
+
+public record BookSearchHits(List<Long> ids, long total) {
+}
@@ -0,0 +1,318 @@
+package com.example.demo.search.book;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.book.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over book title, author names and ISBN, used to answer catalog
+ * searches without the {@code LIKE '%x%'} scans of {@link com.example.demo.specification.book.BookSpecification}.
+ * <p>
+ * Every query token must match (AND semantics, as with the specification); title and author
+ * tokens match any indexed term they are a prefix of, the ISBN must match exactly. Results are
+ * ranked with BM25. Terms come from {@link SearchTerms}, which
+ * {@link com.example.demo.specification.book.BookSpecification#matches} uses for the queries the
+ * index does not answer.
+ * <p>
+ * Changes made inside a transaction are applied when it commits, so searches never return a book
+ * whose write was rolled back; the terms are taken from the book at the time of the call.
+ */
+@Component
+public class BookSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+    private static final String TITLE = "t:";
+    private static final String AUTHOR = "a:";
+    private static final String ISBN = "i:";
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long lastId = 0;
+        long indexed = 0;
+        List<Long> ids;
+        do {
+            ids = bookRepository.findIdsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                bookRepository.findAllWithAuthorsByIdIn(ids).forEach(this::index);
+                lastId = ids.get(ids.size() - 1);
+                indexed += ids.size();
+            }
+        } while (ids.size() == REBUILD_BATCH_SIZE);
+
+        ready = true;
+        logger.info("Indexed {} book(s) for search", indexed);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Book book) {
+        List<String> authorNames = book.getAuthors() == null ? List.of() : book.getAuthors()
+                .stream()
+                .map(Author::getName)
+                .collect(Collectors.toList());
+        index(book.getId(), book.getTitle(), book.getIsbn(), authorNames);
+    }
+
+    public void index(Long id, String title, String isbn, Collection<String> authorNames) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int documentLength = 0;
+        for (String token : SearchTerms.tokenize(title)) {
+            frequencies.merge(TITLE + token, 1, Integer::sum);
+            documentLength++;
+        }
+        for (String authorName : authorNames) {
+            for (String token : SearchTerms.tokenize(authorName)) {
+                frequencies.merge(AUTHOR + token, 1, Integer::sum);
+                documentLength++;
+            }
+        }
+        String normalizedIsbn = SearchTerms.normalizeIsbn(isbn);
+        if (!normalizedIsbn.isEmpty()) {
+            frequencies.put(ISBN + normalizedIsbn, 1);
+        }
+
+        int length = documentLength;
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+                frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new PostingList()).add(id, frequency));
+                documentTerms.put(id, frequencies.keySet().toArray(new String[0]));
+                documentLengths.put(id, length);
+                totalLength += length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Same deferral as ActiveLoanRegistry.release; outside a transaction the change applies at once.
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Returns the ranked ids for one page of results, or empty when the index cannot answer the
+     * query (still building, or no searchable criteria) and the caller should query the database.
+     */
+    public Optional<BookSearchHits> search(String title, String isbn, String author, long offset, int limit) {
+        List<Clause> clauses = new ArrayList<>();
+        SearchTerms.tokenize(title).forEach(token -> clauses.add(new Clause(TITLE + token, true)));
+        SearchTerms.tokenize(author).forEach(token -> clauses.add(new Clause(AUTHOR + token, true)));
+        String normalizedIsbn = SearchTerms.normalizeIsbn(isbn);
+        if (!normalizedIsbn.isEmpty()) {
+            clauses.add(new Clause(ISBN + normalizedIsbn, false));
+        }
+        if (!ready || clauses.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            ScoredDocuments matches = null;
+            for (Clause clause : clauses) {
+                ScoredDocuments clauseMatches = match(clause);
+                matches = matches == null ? clauseMatches : matches.intersect(clauseMatches);
+                if (matches.size == 0) {
+                    break;
+                }
+            }
+            return Optional.of(new BookSearchHits(matches.top(offset, limit), matches.size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList != null && postingList.remove(id) && postingList.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        Integer documentLength = documentLengths.remove(id);
+        totalLength -= documentLength == null ? 0 : documentLength;
+    }
+
+    private ScoredDocuments match(Clause clause) {
+        Collection<PostingList> lists = clause.prefix()
+                ? postings.subMap(clause.term(), true, clause.term() + Character.MAX_VALUE, false).values()
+                : Optional.ofNullable(postings.get(clause.term())).map(List::of).orElse(List.of());
+
+        int documentCount = documentLengths.size();
+        double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+        ScoredDocuments result = ScoredDocuments.EMPTY;
+        for (PostingList postingList : lists) {
+            long[] docIds = new long[postingList.size()];
+            int[] frequencies = new int[postingList.size()];
+            int count = postingList.decode(docIds, frequencies);
+            double idf = Math.log(1 + (documentCount - count + 0.5) / (count + 0.5));
+            double[] scores = new double[count];
+            for (int i = 0; i < count; i++) {
+                int length = documentLengths.getOrDefault(docIds[i], 0);
+                double norm = averageLength == 0 ? 1 : 1 - B + B * length / averageLength;
+                scores[i] = idf * frequencies[i] * (K1 + 1) / (frequencies[i] + K1 * norm);
+            }
+            result = result.union(new ScoredDocuments(docIds, scores, count));
+        }
+        return result;
+    }
+
+    private record Clause(String term, boolean prefix) {
+    }
+
+    /**
+     * Ascending document ids with their accumulated scores.
+     */
+    private static final class ScoredDocuments {
+        static final ScoredDocuments EMPTY = new ScoredDocuments(new long[0], new double[0], 0);
+
+        final long[] docIds;
+        final double[] scores;
+        final int size;
+
+        ScoredDocuments(long[] docIds, double[] scores, int size) {
+            this.docIds = docIds;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        ScoredDocuments union(ScoredDocuments other) {
+            if (size == 0) {
+                return other;
+            }
+            long[] ids = new long[size + other.size];
+            double[] merged = new double[size + other.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docIds[i] < other.docIds[j])) {
+                    ids[n] = docIds[i];
+                    merged[n++] = scores[i++];
+                } else if (i == size || other.docIds[j] < docIds[i]) {
+                    ids[n] = other.docIds[j];
+                    merged[n++] = other.scores[j++];
+                } else {
+                    ids[n] = docIds[i];
+                    merged[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredDocuments(ids, merged, n);
+        }
+
+        ScoredDocuments intersect(ScoredDocuments other) {
+            long[] ids = new long[Math.min(size, other.size)];
+            double[] merged = new double[ids.length];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (docIds[i] < other.docIds[j]) {
+                    i++;
+                } else if (other.docIds[j] < docIds[i]) {
+                    j++;
+                } else {
+                    ids[n] = docIds[i];
+                    merged[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredDocuments(ids, merged, n);
+        }
+
+        List<Long> top(long offset, int limit) {
+            if (offset >= size || limit <= 0) {
+                return List.of();
+            }
+            int wanted = (int) Math.min(size, offset + limit);
+            // Keeps the best `wanted` entries with the weakest one on top (higher score, then lower id wins).
+            Comparator<Integer> weakestFirst = Comparator.<Integer>comparingDouble(index -> scores[index])
+                    .thenComparing(index -> docIds[index], Comparator.reverseOrder());
+            PriorityQueue<Integer> best = new PriorityQueue<>(wanted, weakestFirst);
+            for (int index = 0; index < size; index++) {
+                best.offer(index);
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+            long[] ranked = new long[best.size()];
+            for (int position = ranked.length - 1; position >= 0; position--) {
+                ranked[position] = docIds[best.poll()];
+            }
+            List<Long> page = new ArrayList<>(ranked.length - (int) offset);
+            for (int position = (int) offset; position < ranked.length; position++) {
+                page.add(ranked[position]);
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.search.book;
+
+import java.util.Arrays;
+
+/**
+ * Compressed posting list of a single term: ascending book ids stored as variable-length
+ * deltas, each followed by the term frequency in that book. Appending an id larger than the
+ * last one (the common case, ids are generated in increasing order) is amortized O(1); any
+ * other mutation re-encodes the list.
+ */
+final class PostingList {
+    private byte[] data = new byte[16];
+    private int length;
+    private int size;
+    private long lastDocId;
+
+    int size() {
+        return size;
+    }
+
+    void add(long docId, int termFrequency) {
+        if (size == 0 || docId > lastDocId) {
+            writeVarLong(docId - (size == 0 ? 0 : lastDocId));
+            writeVarLong(termFrequency);
+            lastDocId = docId;
+            size++;
+            return;
+        }
+
+        long[] docIds = new long[size + 1];
+        int[] frequencies = new int[size + 1];
+        int count = decode(docIds, frequencies);
+        int index = Arrays.binarySearch(docIds, 0, count, docId);
+        if (index >= 0) {
+            frequencies[index] = termFrequency;
+        } else {
+            int insertAt = -index - 1;
+            System.arraycopy(docIds, insertAt, docIds, insertAt + 1, count - insertAt);
+            System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, count - insertAt);
+            docIds[insertAt] = docId;
+            frequencies[insertAt] = termFrequency;
+            count++;
+        }
+        encode(docIds, frequencies, count);
+    }
+
+    boolean remove(long docId) {
+        if (size == 0 || docId > lastDocId) {
+            return false;
+        }
+
+        long[] docIds = new long[size];
+        int[] frequencies = new int[size];
+        int count = decode(docIds, frequencies);
+        int index = Arrays.binarySearch(docIds, 0, count, docId);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(docIds, index + 1, docIds, index, count - index - 1);
+        System.arraycopy(frequencies, index + 1, frequencies, index, count - index - 1);
+        encode(docIds, frequencies, count - 1);
+        return true;
+    }
+
+    /**
+     * Decodes the list into the given arrays, which must hold at least {@link #size()} entries.
+     */
+    int decode(long[] docIds, int[] frequencies) {
+        int position = 0;
+        long docId = 0;
+        for (int i = 0; i < size; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            docId += delta;
+
+            int frequency = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                frequency |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            docIds[i] = docId;
+            frequencies[i] = frequency;
+        }
+        return size;
+    }
+
+    private void encode(long[] docIds, int[] frequencies, int count) {
+        length = 0;
+        size = 0;
+        lastDocId = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarLong(docIds[i] - lastDocId);
+            writeVarLong(frequencies[i]);
+            lastDocId = docIds[i];
+            size++;
+        }
+        if (data.length > 64 && length < data.length / 4) {
+            data = Arrays.copyOf(data, Math.max(16, length * 2));
+        }
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
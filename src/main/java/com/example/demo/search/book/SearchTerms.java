@@ -0,0 +1,50 @@
+package com.example.demo.search.book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * How catalog text is broken into search terms, shared by {@link BookSearchIndex} and the database
+ * fallback in {@link com.example.demo.specification.book.BookSpecification#matches} so both match
+ * the same books.
+ */
+public final class SearchTerms {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTerms() {
+    }
+
+    /** Lower-cased runs of letters and digits. */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public static String normalizeIsbn(String isbn) {
+        return isbn == null ? "" : NON_WORD.matcher(isbn.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * The stored form of {@code text}: every token preceded by one space, so that
+     * {@link #prefixPattern} finds exactly the texts with a term the token is a prefix of.
+     * db/migration/V5__search_terms.sql computes the same form for existing rows.
+     */
+    public static String asText(String text) {
+        return " " + String.join(" ", tokenize(text));
+    }
+
+    /** LIKE pattern for a token from {@link #tokenize}, which holds no wildcards. */
+    public static String prefixPattern(String token) {
+        return "% " + token + "%";
+    }
+}
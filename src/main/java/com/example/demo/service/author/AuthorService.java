@@ -8,26 +8,55 @@ import com.example.demo.model.book.Book;
 import com.example.demo.repository.author.AuthorRepository;
 import com.example.demo.request.author.StoreAuthorRequest;
 import com.example.demo.request.author.UpdateAuthorRequest;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.specification.author.AuthorSpecification;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 public class AuthorService {
     private final AuthorRepository authorRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final NdjsonExporter ndjsonExporter;
+    private final UniqueKeyFilter authorEmailFilter;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, BookSearchIndex bookSearchIndex, NdjsonExporter ndjsonExporter,
+                         @Qualifier("authorEmailFilter") UniqueKeyFilter authorEmailFilter) {
         this.authorRepository = authorRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.ndjsonExporter = ndjsonExporter;
+        this.authorEmailFilter = authorEmailFilter;
     }
 
-    public List<AuthorDTO> getAuthors() {
-        return authorRepository.findAll()
+    @Transactional(readOnly = true)
+    public List<AuthorDTO> getAuthors(String name, String email, Pageable pageable) {
+        return authorRepository.findAll(AuthorSpecification.search(name, email), pageable)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long exportAuthors(OutputStream outputStream) throws IOException {
+        try (Stream<Author> authors = authorRepository.streamAll()) {
+            return ndjsonExporter.export(authors, this::convertToDTO, outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public AuthorDTO getAuthor(Long id) {
         return authorRepository.findById(id)
                 .map(this::convertToDTO)
@@ -35,7 +64,7 @@ public class AuthorService {
     }
 
     public AuthorDTO postAuthor(StoreAuthorRequest storeAuthorRequest) {
-        if (authorRepository.existsByEmail(storeAuthorRequest.email())) {
+        if (authorEmailFilter.exists(storeAuthorRequest.email(), authorRepository::existsByEmail)) {
             throw new DuplicateEmailException("Email already in use");
         }
 
@@ -44,36 +73,59 @@ public class AuthorService {
         author.setEmail(storeAuthorRequest.email());
         author.setBio(storeAuthorRequest.bio());
         author.setBirthDate(storeAuthorRequest.birthDate());
-        return this.convertToDTO(authorRepository.save(author));
+        return this.convertToDTO(save(author, authorRepository::save));
     }
 
+    @Transactional
     public AuthorDTO putAuthor(Long id, UpdateAuthorRequest updateAuthorRequest) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Author with id: " + id + " does not exists"));
 
         if (!author.getEmail().equals(updateAuthorRequest.email())
-                && authorRepository.existsByEmail(updateAuthorRequest.email())) {
+                && authorEmailFilter.exists(updateAuthorRequest.email(), authorRepository::existsByEmail)) {
             throw new DuplicateEmailException("Email already in use");
         }
 
+        boolean renamed = updateAuthorRequest.name() != null && !updateAuthorRequest.name().equals(author.getName());
         author.setName(updateAuthorRequest.name() != null ? updateAuthorRequest.name() : author.getName());
         author.setEmail(updateAuthorRequest.email() != null ? updateAuthorRequest.email() : author.getEmail());
         author.setBio(updateAuthorRequest.bio() != null ? updateAuthorRequest.bio() : author.getBio());
         author.setBirthDate(updateAuthorRequest.birthDate() != null ? updateAuthorRequest.birthDate() : author.getBirthDate());
-        return this.convertToDTO(authorRepository.save(author));
+        // Flushed so the DTO carries the new updatedAt.
+        Author savedAuthor = save(author, authorRepository::saveAndFlush);
+        if (renamed && savedAuthor.getBooks() != null) {
+            savedAuthor.getBooks().forEach(bookSearchIndex::index);
+        }
+        return this.convertToDTO(savedAuthor);
     }
 
+    @Transactional
     public void deleteAuthor(Long id) {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Author with id: " + id + " does not exists"));
-        for (Book book : author.getBooks()) {
+        List<Book> books = List.copyOf(author.getBooks());
+        for (Book book : books) {
             book.getAuthors().remove(author);
         }
         author.getBooks().clear();
         authorRepository.deleteById(id);
+        books.forEach(bookSearchIndex::index);
+    }
+
+    // The filter only knows emails written through this instance; one written by another instance
+    // or by plain SQL passes the check and is caught here by the unique constraint instead.
+    private Author save(Author author, UnaryOperator<Author> save) {
+        try {
+            return save.apply(author);
+        } catch (DataIntegrityViolationException e) {
+            if (authorEmailFilter.rejected(author.getEmail(), e)) {
+                throw new DuplicateEmailException("Email already in use");
+            }
+            throw e;
+        }
     }
 
-    private AuthorDTO convertToDTO(Author author) {
+    AuthorDTO convertToDTO(Author author) {
         return new AuthorDTO(
             author.getId(),
             author.getName(),
@@ -0,0 +1,80 @@
+package com.example.demo.service.book;
+
+import com.example.demo.exception.InvalidCursorException;
+import com.example.demo.model.book.Book;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for book listings: the sort property and direction it was issued for,
+ * plus the (sort key, id) of the last book of the previous slice.
+ */
+final class BookCursor {
+    private static final String ID = "id";
+    private static final Map<String, Function<Book, Object>> SORT_KEYS = Map.of(
+            ID, Book::getId,
+            "title", Book::getTitle,
+            "isbn", Book::getIsbn,
+            "publicationYear", Book::getPublicationYear
+    );
+    private static final Map<String, Function<String, Object>> SORT_KEY_PARSERS = Map.of(
+            ID, Long::valueOf,
+            "title", value -> value,
+            "isbn", value -> value,
+            "publicationYear", Integer::valueOf
+    );
+
+    private BookCursor() {}
+
+    static Sort.Order requireSortable(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!SORT_KEYS.containsKey(order.getProperty())) {
+            throw new InvalidCursorException("Cursor paging supports sorting by " + String.join(", ", SORT_KEYS.keySet()) + " only");
+        }
+        return order;
+    }
+
+    static Sort sortFor(Sort.Order order) {
+        return ID.equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), ID));
+    }
+
+    static ScrollPosition decode(String token, Sort.Order order) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+        if (parts.length != 4) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        if (!parts[0].equals(order.getProperty()) || !parts[1].equals(order.getDirection().name())) {
+            throw new InvalidCursorException("Cursor does not match the requested sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(order.getProperty(), SORT_KEY_PARSERS.get(order.getProperty()).apply(parts[3]));
+            keys.put(ID, Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    static String encode(Sort.Order order, Book last) {
+        String token = order.getProperty() + "\n" + order.getDirection().name() + "\n" + last.getId() + "\n"
+                + SORT_KEYS.get(order.getProperty()).apply(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.service.book;
 
+import com.example.demo.dto.author.AuthorSummaryDTO;
 import com.example.demo.dto.book.BookDTO;
+import com.example.demo.dto.response.CursorPage;
 import com.example.demo.exception.DuplicateEmailException;
 import com.example.demo.exception.DuplicateIsbnException;
 import com.example.demo.exception.ResourceNotFoundException;
@@ -10,33 +12,110 @@ import com.example.demo.repository.author.AuthorRepository;
 import com.example.demo.repository.book.BookRepository;
 import com.example.demo.request.book.StoreBookRequest;
 import com.example.demo.request.book.UpdateBookRequest;
+import com.example.demo.search.book.BookSearchIndex;
 import com.example.demo.specification.book.BookSpecification;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookService {
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final UniqueKeyFilter isbnFilter;
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
 
-    public BookService(BookRepository bookRepository, AuthorRepository authorRepository) {
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, BookSearchIndex bookSearchIndex,
+                       @Qualifier("isbnFilter") UniqueKeyFilter isbnFilter) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.isbnFilter = isbnFilter;
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooks(String title, String isbn, String author, Pageable pageable) {
-        Page<Book> pageResult = bookRepository.findAll(BookSpecification.search(title, isbn, author), pageable);
-        return pageResult
+        return findBooks(BookSpecification.search(title, isbn, author), pageable);
+    }
+
+    private List<BookDTO> findBooks(Specification<Book> specification, Pageable pageable) {
+        Page<Book> pageResult = bookRepository.findAll(specification, pageable);
+        List<Long> ids = pageResult.stream().map(Book::getId).collect(Collectors.toList());
+        return findWithAuthors(ids)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset variant of {@link #getBooks}: seeks past the (sort key, id) encoded in {@code after}
+     * instead of skipping an offset, and runs no count query, so every slice costs the same.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getBooksAfter(String title, String isbn, String author, String after, Pageable pageable) {
+        return findBooksAfter(BookSpecification.search(title, isbn, author), after, pageable);
+    }
+
+    /** Keyset variant of {@link #searchBooks}, matching the same books as the search index. */
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> searchBooksAfter(String title, String isbn, String author, String after, Pageable pageable) {
+        return findBooksAfter(BookSpecification.matches(title, isbn, author), after, pageable);
+    }
+
+    private CursorPage<BookDTO> findBooksAfter(Specification<Book> specification, String after, Pageable pageable) {
+        Sort.Order order = BookCursor.requireSortable(pageable.getSort());
+        ScrollPosition position = BookCursor.decode(after, order);
+        int limit = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_CURSOR_PAGE_SIZE;
+
+        Window<Book> window = bookRepository.findBy(specification,
+                query -> query.sortBy(BookCursor.sortFor(order)).limit(limit).scroll(position));
+
+        List<Long> ids = window.stream().map(Book::getId).collect(Collectors.toList());
+        List<BookDTO> books = findWithAuthors(ids)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? BookCursor.encode(order, window.getContent().get(window.size() - 1))
+                : null;
+        return new CursorPage<>(books, nextCursor);
     }
 
+    @Transactional(readOnly = true)
+    public List<BookDTO> searchBooks(String title, String isbn, String author, Pageable pageable) {
+        // The index ranks by relevance; an explicit sort order is only available from the database,
+        // which applies the index's matching rules so both return the same books.
+        if (pageable.getSort().isSorted()) {
+            return findBooks(BookSpecification.matches(title, isbn, author), pageable);
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        return bookSearchIndex.search(title, isbn, author, offset, limit)
+                .map(hits -> findWithAuthors(hits.ids())
+                        .stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()))
+                .orElseGet(() -> findBooks(BookSpecification.matches(title, isbn, author), pageable));
+    }
+
+    @Transactional(readOnly = true)
     public BookDTO getBook(Long id) {
         return bookRepository.findById(id)
                 .map(this::convertToDTO)
@@ -44,7 +123,7 @@ public class BookService {
     }
 
     public BookDTO postBook(StoreBookRequest storeBookRequest) {
-        if (bookRepository.existsByIsbn(storeBookRequest.isbn())) {
+        if (isbnFilter.exists(storeBookRequest.isbn(), bookRepository::existsByIsbn)) {
             throw new DuplicateEmailException("ISBN already taken");
         }
 
@@ -56,15 +135,27 @@ public class BookService {
         book.setTotalCopies(storeBookRequest.totalCopies());
         List<Author> authors = authorRepository.findAllById(storeBookRequest.authorIds());
         book.setAuthors(authors);
-        return this.convertToDTO(bookRepository.save(book));
+        Book savedBook;
+        try {
+            savedBook = bookRepository.save(book);
+        } catch (DataIntegrityViolationException e) {
+            // Taken by a write the filter could not see: another instance or plain SQL.
+            if (isbnFilter.rejected(book.getIsbn(), e)) {
+                throw new DuplicateEmailException("ISBN already taken");
+            }
+            throw e;
+        }
+        bookSearchIndex.index(savedBook);
+        return this.convertToDTO(savedBook);
     }
 
+    @Transactional
     public BookDTO putBook(Long id, UpdateBookRequest updateBookRequest) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book with id: " + id + " does not exists"));
 
         if (!book.getIsbn().equals(updateBookRequest.isbn())
-                && bookRepository.existsByIsbn(updateBookRequest.isbn())) {
+                && isbnFilter.exists(updateBookRequest.isbn(), bookRepository::existsByIsbn)) {
             throw new DuplicateIsbnException("ISBN already taken");
         }
 
@@ -75,9 +166,21 @@ public class BookService {
         book.setTotalCopies(updateBookRequest.totalCopies() != null ? updateBookRequest.totalCopies() : book.getTotalCopies());
         List<Author> authors = (updateBookRequest.authorIds() != null) ? authorRepository.findAllById(updateBookRequest.authorIds()) : book.getAuthors();
         book.setAuthors(authors);
-        return this.convertToDTO(bookRepository.save(book));
+        // Flushed so the DTO carries the new updatedAt.
+        Book savedBook;
+        try {
+            savedBook = bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (isbnFilter.rejected(book.getIsbn(), e)) {
+                throw new DuplicateIsbnException("ISBN already taken");
+            }
+            throw e;
+        }
+        bookSearchIndex.index(savedBook);
+        return this.convertToDTO(savedBook);
     }
 
+    @Transactional
     public void deleteBook(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book with id: " + id + " does not exists"));
@@ -86,8 +189,10 @@ public class BookService {
         }
         book.getAuthors().clear();
         bookRepository.deleteById(id);
+        bookSearchIndex.remove(id);
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getAuthorBooks(Long id) {
         if (!authorRepository.existsById(id)) {
             throw new ResourceNotFoundException("Author with id: " + id + " does not exist");
@@ -99,7 +204,21 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
-    private BookDTO convertToDTO(Book book) {
+    private List<Book> findWithAuthors(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Book> fetched = bookRepository.findAllWithAuthorsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(fetched::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    BookDTO convertToDTO(Book book) {
         return new BookDTO(
                 book.getId(),
                 book.getTitle(),
@@ -107,7 +226,10 @@ public class BookService {
                 book.getPublicationYear(),
                 book.getAvailableCopies(),
                 book.getTotalCopies(),
-                book.getAuthors(),
+                book.getAuthors() == null ? List.of() : book.getAuthors()
+                        .stream()
+                        .map(author -> new AuthorSummaryDTO(author.getId(), author.getName()))
+                        .collect(Collectors.toList()),
                 book.getCreatedAt(),
                 book.getUpdatedAt()
         );
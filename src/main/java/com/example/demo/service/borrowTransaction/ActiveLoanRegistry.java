@@ -0,0 +1,252 @@
+package com.example.demo.service.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.ActiveLoanDTO;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The books each member currently has out, kept in memory so the borrow limit and duplicate
+ * checks need no query. Updated by {@link BorrowTransactionService} as loans are borrowed and
+ * returned, loaded from the database before the application starts taking requests and compared
+ * with it every {@code active-loans.reconcile-interval} to repair drift from writes that bypass
+ * the service.
+ *
+ * <p>A borrow reserves its book here before its transaction writes anything, so concurrent borrows
+ * by the same member are checked against each other; the reservation is dropped again if the
+ * transaction rolls back.
+ *
+ * <p>The registry only sees this instance's borrows, so it is a fast pre-check rather than the
+ * guard: the database enforces both rules for every instance, through {@code members.active_loans}
+ * and the open-loan unique key on {@code borrow_transactions}.
+ */
+@Component
+public class ActiveLoanRegistry implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(ActiveLoanRegistry.class);
+    private static final long[] NO_BOOKS = new long[0];
+
+    public enum Reservation {
+        RESERVED,
+        LIMIT_REACHED,
+        ALREADY_BORROWED
+    }
+
+    private final BorrowTransactionRepository borrowTransactionRepository;
+    private final TransactionTemplate readTransaction;
+    private final Map<Long, Loans> loansByMember = new ConcurrentHashMap<>();
+    // Stamps every change, so a cross-check can leave alone members changed since it read the database.
+    private final AtomicLong changes = new AtomicLong();
+    private final Counter corrections;
+
+    public ActiveLoanRegistry(BorrowTransactionRepository borrowTransactionRepository, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.borrowTransactionRepository = borrowTransactionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        Gauge.builder("active_loans.members", loansByMember, Map::size)
+                .description("Members tracked by the active loan registry")
+                .register(meterRegistry);
+        this.corrections = Counter.builder("active_loans.corrections")
+                .description("Members whose in-memory loans disagreed with the database when cross-checked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reserves {@code bookId} for the member unless they already hold {@code limit} books or this
+     * one. Inside a transaction the reservation becomes a loan when it commits and is dropped if it
+     * rolls back.
+     */
+    public Reservation reserve(long memberId, long bookId, int limit) {
+        Reservation[] outcome = new Reservation[1];
+        loansByMember.compute(memberId, (id, loans) -> {
+            Loans current = loans == null ? new Loans(NO_BOOKS, 0, 0) : loans;
+            if (current.bookIds.length >= limit) {
+                outcome[0] = Reservation.LIMIT_REACHED;
+                return loans;
+            }
+            if (current.holds(bookId)) {
+                outcome[0] = Reservation.ALREADY_BORROWED;
+                return loans;
+            }
+            outcome[0] = Reservation.RESERVED;
+            boolean pending = TransactionSynchronizationManager.isSynchronizationActive();
+            return new Loans(current.with(bookId), current.pending + (pending ? 1 : 0), changes.incrementAndGet());
+        });
+
+        if (outcome[0] == Reservation.RESERVED && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(memberId, bookId, status == STATUS_COMMITTED);
+                }
+            });
+        }
+        return outcome[0];
+    }
+
+    /** Drops {@code bookId} from the member's loans once the surrounding transaction commits. */
+    public void release(long memberId, long bookId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(memberId, bookId);
+                }
+            });
+        } else {
+            remove(memberId, bookId);
+        }
+    }
+
+    /**
+     * Drops a reservation made earlier in the current transaction for a loan that will not be
+     * written after all, e.g. one item of a batch that found no copy left.
+     */
+    public void cancel(long memberId, long bookId) {
+        remove(memberId, bookId);
+    }
+
+    public int activeLoans(long memberId) {
+        Loans loans = loansByMember.get(memberId);
+        return loans == null ? 0 : loans.bookIds.length;
+    }
+
+    public boolean holds(long memberId, long bookId) {
+        Loans loans = loansByMember.get(memberId);
+        return loans != null && loans.holds(bookId);
+    }
+
+    /** Replaces the registry with what the database says; for startup and for tests that write loans directly. */
+    public void rebuild() {
+        Map<Long, long[]> snapshot = readSnapshot();
+        loansByMember.clear();
+        snapshot.forEach((memberId, bookIds) -> loansByMember.put(memberId, new Loans(bookIds, 0, changes.incrementAndGet())));
+    }
+
+    /**
+     * Compares the registry with the database and corrects members that disagree, skipping any
+     * with a borrow in flight or changed while the database was being read. Returns the number of
+     * members corrected.
+     */
+    @Scheduled(fixedDelayString = "${active-loans.reconcile-interval:PT10M}", initialDelayString = "${active-loans.reconcile-interval:PT10M}")
+    public int reconcile() {
+        long readFrom = changes.get();
+        Map<Long, long[]> snapshot = readSnapshot();
+
+        Set<Long> memberIds = new HashSet<>(snapshot.keySet());
+        memberIds.addAll(loansByMember.keySet());
+        int[] corrected = new int[1];
+        for (Long memberId : memberIds) {
+            loansByMember.compute(memberId, (id, loans) -> {
+                if (loans != null && (loans.pending > 0 || loans.changedAt > readFrom)) {
+                    return loans;
+                }
+                long[] expected = snapshot.getOrDefault(id, NO_BOOKS);
+                long[] actual = loans == null ? NO_BOOKS : loans.bookIds;
+                if (asSet(expected).equals(asSet(actual))) {
+                    // Members who have returned everything are only kept until the next cross-check.
+                    return expected.length == 0 ? null : loans;
+                }
+                logger.warn("Active loans of member {} were {} in memory but {} in the database; corrected",
+                        id, Arrays.toString(actual), Arrays.toString(expected));
+                corrected[0]++;
+                return expected.length == 0 ? null : new Loans(expected, 0, changes.incrementAndGet());
+            });
+        }
+        corrections.increment(corrected[0]);
+        return corrected[0];
+    }
+
+    private Map<Long, long[]> readSnapshot() {
+        return readTransaction.execute(status -> {
+            Map<Long, long[]> snapshot = new HashMap<>();
+            try (Stream<ActiveLoanDTO> loans = borrowTransactionRepository.streamActiveLoans()) {
+                loans.forEach(loan -> snapshot.merge(loan.memberId(), new long[]{loan.bookId()}, ActiveLoanRegistry::concat));
+            }
+            return snapshot;
+        });
+    }
+
+    private void settle(long memberId, long bookId, boolean committed) {
+        loansByMember.computeIfPresent(memberId, (id, loans) -> new Loans(
+                committed ? loans.bookIds : loans.without(bookId), Math.max(0, loans.pending - 1), changes.incrementAndGet()));
+    }
+
+    // Leaves a stamped entry even for a member not tracked yet, so a cross-check reading the
+    // database before the return committed cannot put the book back.
+    private void remove(long memberId, long bookId) {
+        loansByMember.compute(memberId, (id, loans) -> loans == null
+                ? new Loans(NO_BOOKS, 0, changes.incrementAndGet())
+                : new Loans(loans.without(bookId), loans.pending, changes.incrementAndGet()));
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+
+    private static Set<Long> asSet(long[] bookIds) {
+        Set<Long> set = new HashSet<>();
+        for (long bookId : bookIds) {
+            set.add(bookId);
+        }
+        return set;
+    }
+
+    // Immutable, so compute() can swap it atomically. A member holds only a handful of books, so a
+    // plain array beats any set.
+    private record Loans(long[] bookIds, int pending, long changedAt) {
+        boolean holds(long bookId) {
+            for (long held : bookIds) {
+                if (held == bookId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long[] with(long bookId) {
+            long[] added = Arrays.copyOf(bookIds, bookIds.length + 1);
+            added[bookIds.length] = bookId;
+            return added;
+        }
+
+        long[] without(long bookId) {
+            for (int i = 0; i < bookIds.length; i++) {
+                if (bookIds[i] == bookId) {
+                    long[] removed = new long[bookIds.length - 1];
+                    System.arraycopy(bookIds, 0, removed, 0, i);
+                    System.arraycopy(bookIds, i + 1, removed, i, bookIds.length - i - 1);
+                    return removed;
+                }
+            }
+            return bookIds;
+        }
+    }
+}
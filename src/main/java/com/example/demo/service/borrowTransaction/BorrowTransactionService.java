@@ -1,5 +1,6 @@
 package com.example.demo.service.borrowTransaction;
 
+import com.example.demo.dto.borrowTransaction.BatchItemResultDTO;
 import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
 import com.example.demo.exception.*;
 import com.example.demo.model.book.Book;
@@ -9,27 +10,56 @@ import com.example.demo.model.member.Member;
 import com.example.demo.repository.book.BookRepository;
 import com.example.demo.repository.member.MemberRepository;
 import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.request.borrowTransaction.BatchBorrowRequest;
+import com.example.demo.request.borrowTransaction.BatchReturnRequest;
+import com.example.demo.request.borrowTransaction.BorrowPeriod;
 import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
-import jakarta.transaction.Transactional;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.service.outbox.OutboxService;
+import com.example.demo.specification.borrowTransaction.BorrowTransactionSpecification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BorrowTransactionService {
     private final BorrowTransactionRepository borrowTransactionRepository;
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActiveLoanRegistry activeLoanRegistry;
     private static final int MAX_BORROW_LIMIT = 3;
     private static final int DEFAULT_BORROW_DAYS = 14;
 
-    public BorrowTransactionService(BorrowTransactionRepository borrowTransactionRepository, BookRepository bookRepository, MemberRepository memberRepository) {
+    public BorrowTransactionService(BorrowTransactionRepository borrowTransactionRepository, BookRepository bookRepository, MemberRepository memberRepository, NdjsonExporter ndjsonExporter, OutboxService outboxService, ApplicationEventPublisher eventPublisher, ActiveLoanRegistry activeLoanRegistry) {
         this.borrowTransactionRepository = borrowTransactionRepository;
         this.bookRepository = bookRepository;
         this.memberRepository = memberRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.activeLoanRegistry = activeLoanRegistry;
     }
 
     @Transactional
@@ -45,22 +75,95 @@ public class BorrowTransactionService {
         }
 
         validateBookAvailability(book);
-        validateMemberBorrowLimit(member.getId());
-        validateDuplicateBorrow(member.getId(), book.getId());
+        reserveLoan(member.getId(), book.getId());
         
-        BorrowTransaction borrowTransaction = new BorrowTransaction();
-        borrowTransaction.setBook(book);
-        borrowTransaction.setMember(member);
-        borrowTransaction.setBorrowDate(borrowTransactionRequest.borrowDate());
-        borrowTransaction.setDueDate(borrowTransactionRequest.dueDate() != null ? borrowTransactionRequest.dueDate() : borrowTransactionRequest.borrowDate().plusDays(DEFAULT_BORROW_DAYS));
-        borrowTransaction.setStatus(Status.BORROWED);
+        // Member row before book row, in every borrow, so concurrent borrows cannot deadlock.
+        claimLoanSlots(member.getId(), 1);
+        reserveCopy(book);
+
+        BorrowTransaction saved = insertLoans(() -> borrowTransactionRepository.saveAndFlush(newLoan(book, member, borrowTransactionRequest)));
+        afterBorrow(saved);
+
+        return this.convertToDTO(saved);
+    }
+
+    /**
+     * Borrows several books for one member in one transaction: the member is loaded once, every
+     * book is checked against the same snapshot and the inventory is decremented in one batch.
+     * Items that fail are reported in the result and do not stop the others.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> borrowBooks(BatchBorrowRequest batchBorrowRequest) {
+        Member member = memberRepository.findById(batchBorrowRequest.memberId())
+                .orElseThrow(() -> new ResourceNotFoundException("Member with id: " + batchBorrowRequest.memberId() + " does not exists"));
+
+        if (member.getStatus() != com.example.demo.model.member.Status.ACTIVE) {
+            throw new IllegalStateException("Member is not active");
+        }
+
+        List<Long> bookIds = batchBorrowRequest.bookIds();
+        Map<Long, Book> books = bookRepository.findAllById(new LinkedHashSet<>(bookIds)).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
 
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book);
+        BatchItemResultDTO[] results = new BatchItemResultDTO[bookIds.size()];
+        List<Integer> reserved = new ArrayList<>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            Long bookId = bookIds.get(i);
+            Book book = books.get(bookId);
+            try {
+                if (book == null) {
+                    throw new ResourceNotFoundException("Book with id: " + bookId + " does not exists");
+                }
+                validateBookAvailability(book);
+                reserveLoan(member.getId(), bookId);
+                reserved.add(i);
+            } catch (ResourceNotFoundException | BookNotAvailableException | BorrowLimitExceededException | DuplicateBorrowException e) {
+                results[i] = BatchItemResultDTO.error(bookId, e.getMessage());
+            }
+        }
+
+        // The registry can only be behind loans taken on other instances; if the database then
+        // refuses the slots, every reserved item fails rather than an arbitrary subset.
+        if (!reserved.isEmpty()) {
+            try {
+                claimLoanSlots(member.getId(), reserved.size());
+            } catch (BorrowLimitExceededException e) {
+                for (int i : reserved) {
+                    activeLoanRegistry.cancel(member.getId(), bookIds.get(i));
+                    results[i] = BatchItemResultDTO.error(bookIds.get(i), e.getMessage());
+                }
+                reserved.clear();
+            }
+        }
+
+        int[] decremented = bookRepository.decrementAvailableCopies(reserved.stream().map(bookIds::get).toList());
+        List<BorrowTransaction> loans = new ArrayList<>();
+        List<Integer> loanItems = new ArrayList<>();
+        for (int j = 0; j < reserved.size(); j++) {
+            int i = reserved.get(j);
+            Book book = books.get(bookIds.get(i));
+            if (decremented[j] == 0) {
+                activeLoanRegistry.cancel(member.getId(), book.getId());
+                results[i] = BatchItemResultDTO.error(book.getId(), "No copies available for book: " + book.getTitle());
+            } else {
+                loans.add(newLoan(book, member, batchBorrowRequest));
+                loanItems.add(i);
+            }
+        }
+        if (loans.size() < reserved.size()) {
+            memberRepository.removeActiveLoans(member.getId(), reserved.size() - loans.size());
+        }
 
-        return this.convertToDTO(borrowTransactionRepository.save(borrowTransaction));
+        List<BorrowTransaction> saved = insertLoans(() -> borrowTransactionRepository.saveAllAndFlush(loans));
+        for (int j = 0; j < saved.size(); j++) {
+            BorrowTransaction loan = saved.get(j);
+            afterBorrow(loan);
+            results[loanItems.get(j)] = BatchItemResultDTO.success(loan.getBook().getId(), "Book borrowed successfully", convertToDTO(loan));
+        }
+        return Arrays.asList(results);
     }
 
+    @Transactional
     public BorrowTransactionDTO returnBook(Long transactionId) {
         BorrowTransaction borrowTransaction = borrowTransactionRepository.findById(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction with id: " + transactionId + " does not exists"));
@@ -69,45 +172,130 @@ public class BorrowTransactionService {
             throw new IllegalStateException("Book has already been returned");
         }
         
-        borrowTransaction.setReturnDate(LocalDate.now());
-        borrowTransaction.setStatus(Status.RETURNED);
+        LocalDate returnDate = LocalDate.now();
+        if (borrowTransactionRepository.markReturned(transactionId, returnDate) == 0) {
+            throw new IllegalStateException("Book has already been returned");
+        }
+        memberRepository.removeActiveLoans(borrowTransaction.getMember().getId(), 1);
+        bookRepository.incrementAvailableCopies(borrowTransaction.getBook().getId());
+        afterReturn(borrowTransaction, returnDate);
+
+        return this.convertToDTO(borrowTransaction);
+    }
+
+    /**
+     * Returns several loans in one transaction, marking them returned and restocking their books
+     * in one batch each. Items that fail are reported in the result and do not stop the others.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> returnBooks(BatchReturnRequest batchReturnRequest) {
+        List<Long> transactionIds = batchReturnRequest.transactionIds();
+        Map<Long, BorrowTransaction> transactions = borrowTransactionRepository.findAllWithBookAndMemberByIdIn(new LinkedHashSet<>(transactionIds)).stream()
+                .collect(Collectors.toMap(BorrowTransaction::getId, Function.identity()));
 
-        Book book = borrowTransaction.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
+        BatchItemResultDTO[] results = new BatchItemResultDTO[transactionIds.size()];
+        List<Integer> returnable = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < transactionIds.size(); i++) {
+            Long transactionId = transactionIds.get(i);
+            BorrowTransaction borrowTransaction = transactions.get(transactionId);
+            if (borrowTransaction == null) {
+                results[i] = BatchItemResultDTO.error(transactionId, "Transaction with id: " + transactionId + " does not exists");
+            } else if (borrowTransaction.getStatus() == Status.RETURNED || !seen.add(transactionId)) {
+                results[i] = BatchItemResultDTO.error(transactionId, "Book has already been returned");
+            } else {
+                returnable.add(i);
+            }
+        }
 
-        return this.convertToDTO(borrowTransactionRepository.save(borrowTransaction));
+        LocalDate returnDate = LocalDate.now();
+        int[] marked = borrowTransactionRepository.markReturned(returnable.stream().map(transactionIds::get).toList(), returnDate);
+        List<BorrowTransaction> returned = new ArrayList<>();
+        for (int j = 0; j < returnable.size(); j++) {
+            int i = returnable.get(j);
+            Long transactionId = transactionIds.get(i);
+            if (marked[j] == 0) {
+                results[i] = BatchItemResultDTO.error(transactionId, "Book has already been returned");
+            } else {
+                BorrowTransaction borrowTransaction = transactions.get(transactionId);
+                returned.add(borrowTransaction);
+                afterReturn(borrowTransaction, returnDate);
+                results[i] = BatchItemResultDTO.success(transactionId, "Book returned successfully", convertToDTO(borrowTransaction));
+            }
+        }
+        returned.stream()
+                .collect(Collectors.groupingBy(borrowTransaction -> borrowTransaction.getMember().getId(), Collectors.counting()))
+                .forEach((memberId, count) -> memberRepository.removeActiveLoans(memberId, count.intValue()));
+        bookRepository.incrementAvailableCopies(returned.stream().map(borrowTransaction -> borrowTransaction.getBook().getId()).toList());
+        return Arrays.asList(results);
     }
     
-    public List<BorrowTransactionDTO> getTransactions() {
-        return borrowTransactionRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // The list reads are projected straight into DTOs by the database; see BorrowTransactionDTORepository.
+    @Transactional(readOnly = true)
+    public List<BorrowTransactionDTO> getTransactions(Status status, Long memberId, Long bookId, Pageable pageable) {
+        return borrowTransactionRepository.findAllDTOs(BorrowTransactionSpecification.search(status, memberId, bookId), pageable, LocalDate.now());
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTransactions(OutputStream outputStream) throws IOException {
+        try (Stream<BorrowTransaction> transactions = borrowTransactionRepository.streamAll()) {
+            return ndjsonExporter.export(transactions, this::convertToDTO, outputStream);
+        }
     }
     
+    @Transactional(readOnly = true)
     public BorrowTransactionDTO getTransaction(Long id) {
         return borrowTransactionRepository.findById(id)
                 .map(this::convertToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction with id: " + id + " does not exists"));
     }
 
+    @Transactional(readOnly = true)
     public List<BorrowTransactionDTO> getMemberBorrowTransactions(Long id) {
         if (!memberRepository.existsById(id)) {
             throw new ResourceNotFoundException("Member with id: " + id + " does not exist");
         }
 
-        return borrowTransactionRepository.findByMemberId(id)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return borrowTransactionRepository.findDTOsByMemberId(id, LocalDate.now());
     }
 
+    @Transactional(readOnly = true)
     public List<BorrowTransactionDTO> getTransactionsByDueDate(LocalDate dueDate) {
-        return borrowTransactionRepository.findByDueDate(dueDate)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return borrowTransactionRepository.findDTOsByDueDate(dueDate, LocalDate.now());
+    }
+
+    private BorrowTransaction newLoan(Book book, Member member, BorrowPeriod period) {
+        BorrowTransaction borrowTransaction = new BorrowTransaction();
+        borrowTransaction.setBook(book);
+        borrowTransaction.setMember(member);
+        borrowTransaction.setBorrowDate(period.borrowDate());
+        borrowTransaction.setDueDate(period.dueDate() != null ? period.dueDate() : period.borrowDate().plusDays(DEFAULT_BORROW_DAYS));
+        borrowTransaction.setStatus(Status.BORROWED);
+        return borrowTransaction;
+    }
+
+    private void afterBorrow(BorrowTransaction saved) {
+        Book book = saved.getBook();
+        Member member = saved.getMember();
+        outboxService.enqueue("borrow." + saved.getId(), member.getEmail(), "You borrowed '" + book.getTitle() + "'",
+                "Hi " + member.getName() + ",\n\nYou borrowed '" + book.getTitle() + "' on " + saved.getBorrowDate() +
+                        ". It is due back on " + saved.getDueDate() + ".\n\nThanks.");
+        eventPublisher.publishEvent(new LoanBorrowedEvent(saved.getId(), saved.getDueDate()));
+    }
+
+    // The row is already updated; this brings the (detached) entity, the registry and the member's
+    // inbox in line with it.
+    private void afterReturn(BorrowTransaction borrowTransaction, LocalDate returnDate) {
+        activeLoanRegistry.release(borrowTransaction.getMember().getId(), borrowTransaction.getBook().getId());
+
+        borrowTransaction.setReturnDate(returnDate);
+        borrowTransaction.setStatus(Status.RETURNED);
+
+        Member member = borrowTransaction.getMember();
+        outboxService.enqueue("return." + borrowTransaction.getId(), member.getEmail(), "You returned '" + borrowTransaction.getBook().getTitle() + "'",
+                "Hi " + member.getName() + ",\n\nWe received '" + borrowTransaction.getBook().getTitle() + "' back on " + returnDate +
+                        ".\n\nThanks.");
+        eventPublisher.publishEvent(new LoanReturnedEvent(borrowTransaction.getId()));
     }
 
     private void validateBookAvailability(Book book) {
@@ -116,22 +304,45 @@ public class BorrowTransactionService {
         }
     }
     
-    private void validateMemberBorrowLimit(Long memberId) {
-        long activeBorrows = borrowTransactionRepository.countByMemberIdAndStatus(memberId, Status.BORROWED);
-        if (activeBorrows >= MAX_BORROW_LIMIT) {
-            throw new BorrowLimitExceededException("Member has reached maximum borrow limit of " + MAX_BORROW_LIMIT + " books");
+    private void reserveCopy(Book book) {
+        // validateBookAvailability is only a cheap pre-check on a possibly stale snapshot; the
+        // conditional decrement is what actually guarantees a copy is never handed out twice.
+        if (bookRepository.decrementAvailableCopies(book.getId()) == 0) {
+            throw new BookNotAvailableException("No copies available for book: " + book.getTitle());
+        }
+    }
+
+    // Answered from memory, for this instance only; the reservation is undone if the rest of the
+    // borrow fails. claimLoanSlots and insertLoans hold the same rules against every instance.
+    private void reserveLoan(Long memberId, Long bookId) {
+        switch (activeLoanRegistry.reserve(memberId, bookId, MAX_BORROW_LIMIT)) {
+            case LIMIT_REACHED -> throw new BorrowLimitExceededException("Member has reached maximum borrow limit of " + MAX_BORROW_LIMIT + " books");
+            case ALREADY_BORROWED -> throw new DuplicateBorrowException("Member has already borrowed this book and not returned it yet");
+            case RESERVED -> { }
         }
     }
     
-    private void validateDuplicateBorrow(Long memberId, Long bookId) {
-        Optional<BorrowTransaction> existingBorrow = borrowTransactionRepository.findByMemberIdAndBookIdAndStatus(
-                memberId, bookId, Status.BORROWED);
-        if (existingBorrow.isPresent()) {
-            throw new DuplicateBorrowException("Member has already borrowed this book and not returned it yet");
+    private void claimLoanSlots(Long memberId, int count) {
+        if (memberRepository.addActiveLoans(memberId, count, MAX_BORROW_LIMIT) == 0) {
+            throw new BorrowLimitExceededException("Member has reached maximum borrow limit of " + MAX_BORROW_LIMIT + " books");
+        }
+    }
+
+    // Flushed so that an open loan of the same book taken meanwhile on another instance fails here,
+    // on the open-loan unique key, as the same DuplicateBorrowException the registry would raise.
+    private <T> T insertLoans(Supplier<T> insert) {
+        try {
+            return insert.get();
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(BorrowTransaction.OPEN_LOAN_KEY)) {
+                throw new DuplicateBorrowException("Member has already borrowed this book and not returned it yet");
+            }
+            throw e;
         }
     }
     
-    private BorrowTransactionDTO convertToDTO(BorrowTransaction transaction) {
+    BorrowTransactionDTO convertToDTO(BorrowTransaction transaction) {
         boolean isOverdue = transaction.getStatus() == Status.BORROWED && transaction.getDueDate().isBefore(LocalDate.now());
 
         return new BorrowTransactionDTO(
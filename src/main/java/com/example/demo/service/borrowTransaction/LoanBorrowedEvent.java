@@ -0,0 +1,10 @@
+package com.example.demo.service.borrowTransaction;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link BorrowTransactionService#borrowBook}; listeners that care only about
+ * committed loans should use {@code @TransactionalEventListener}.
+ */
+public record LoanBorrowedEvent(Long transactionId, LocalDate dueDate) {
+}
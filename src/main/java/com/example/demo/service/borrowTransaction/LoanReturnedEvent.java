@@ -0,0 +1,7 @@
+package com.example.demo.service.borrowTransaction;
+
+/**
+ * Published by {@link BorrowTransactionService#returnBook}.
+ */
+public record LoanReturnedEvent(Long transactionId) {
+}
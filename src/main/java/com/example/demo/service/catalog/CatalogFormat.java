@@ -0,0 +1,47 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.exception.InvalidCatalogException;
+
+import java.util.Locale;
+
+/** File formats accepted by {@link CatalogImportService}. */
+public enum CatalogFormat {
+    /**
+     * Header row naming the columns {@code title, isbn, publication_year, available_copies,
+     * total_copies, authors}, in any order; {@code authors} holds {@code Name <email>} entries
+     * separated by {@code ;}.
+     */
+    CSV("text/csv"),
+    /**
+     * One object per line: {@code {"title", "isbn", "publicationYear", "availableCopies",
+     * "totalCopies", "authors": [{"name", "email"}]}}.
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    CatalogFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static CatalogFormat fromMediaType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        for (CatalogFormat format : values()) {
+            if (format.mediaType.equals(type)) {
+                return format;
+            }
+        }
+        throw new InvalidCatalogException("Unsupported catalog content type: " + contentType);
+    }
+
+    public static CatalogFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new InvalidCatalogException("Cannot tell the catalog format of " + fileName + "; expected .csv, .ndjson or .jsonl");
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.config.CatalogImportProperties;
+import com.example.demo.dto.book.CatalogImportReportDTO;
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.author.AuthorRepository;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Loads books and their authors from a CSV or NDJSON catalog. The input is parsed one record at a
+ * time and written in chunks of {@code catalog-import.chunk-size}, each in its own transaction, so
+ * memory stays flat however large the file is and a failure only loses the chunk in progress.
+ * <p>
+ * Per chunk, ISBNs and author emails are deduplicated in memory, existing books and authors are
+ * found with one query each (skipped when the uniqueness filters have seen none of the keys), and
+ * the new rows go out as JDBC batches. Books whose ISBN is already
+ * in the catalog (or earlier in the file) are skipped; invalid records are rejected and reported.
+ */
+@Service
+public class CatalogImportService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+    private static final Pattern ISBN = Pattern.compile("^(97[89])?\\d{9}(\\d|X)$");
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final UniqueKeyFilter isbnFilter;
+    private final UniqueKeyFilter authorEmailFilter;
+    private final ObjectMapper objectMapper;
+    private final CatalogImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter imported;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CatalogImportService(BookRepository bookRepository, AuthorRepository authorRepository, BookSearchIndex bookSearchIndex,
+                                @Qualifier("isbnFilter") UniqueKeyFilter isbnFilter,
+                                @Qualifier("authorEmailFilter") UniqueKeyFilter authorEmailFilter, ObjectMapper objectMapper, CatalogImportProperties properties,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.isbnFilter = isbnFilter;
+        this.authorEmailFilter = authorEmailFilter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imported = records(meterRegistry, "imported");
+        this.duplicates = records(meterRegistry, "duplicate");
+        this.rejected = records(meterRegistry, "rejected");
+    }
+
+    public CatalogImportReportDTO importCatalog(InputStream inputStream, CatalogFormat format) throws IOException {
+        Reader text = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        try (CatalogReader reader = format == CatalogFormat.CSV ? new CsvCatalogReader(text) : new NdjsonCatalogReader(text, objectMapper)) {
+            return importCatalog(reader);
+        }
+    }
+
+    CatalogImportReportDTO importCatalog(CatalogReader reader) throws IOException {
+        Tally tally = new Tally(properties.maxErrors());
+        List<CatalogRecord> chunk = new ArrayList<>(properties.chunkSize());
+        while (true) {
+            CatalogRecord record;
+            try {
+                record = reader.next();
+            } catch (MalformedRecordException e) {
+                tally.records++;
+                tally.reject(e.line(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            tally.records++;
+            String problem = validate(record);
+            if (problem != null) {
+                tally.reject(record.line(), problem);
+                continue;
+            }
+            chunk.add(record);
+            if (chunk.size() == properties.chunkSize()) {
+                writeChunk(chunk, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, tally);
+        }
+
+        CatalogImportReportDTO report = tally.report();
+        logger.info("Catalog import finished: {} records, {} books and {} authors created, {} duplicates skipped, {} rejected in {} ms",
+                report.records(), report.booksCreated(), report.authorsCreated(), report.duplicates(), report.rejected(),
+                report.elapsedMillis());
+        return report;
+    }
+
+    private void writeChunk(List<CatalogRecord> chunk, Tally tally) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> write(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took one of the chunk's ISBNs or author emails after they were
+            // looked up; the lookups of a second attempt see it.
+            try {
+                result = transactionTemplate.execute(status -> write(chunk));
+            } catch (DataIntegrityViolationException again) {
+                String reason = "Could not be written: " + again.getMostSpecificCause().getMessage();
+                chunk.forEach(record -> tally.reject(record.line(), reason));
+                return;
+            }
+        }
+        result.books().forEach(bookSearchIndex::index);
+        tally.booksCreated += result.books().size();
+        tally.authorsCreated += result.authorsCreated();
+        tally.duplicates += result.duplicates();
+        imported.increment(result.books().size());
+        duplicates.increment(result.duplicates());
+        tally.progress();
+    }
+
+    private ChunkResult write(List<CatalogRecord> chunk) {
+        Map<String, CatalogRecord> byIsbn = new LinkedHashMap<>();
+        for (CatalogRecord record : chunk) {
+            byIsbn.putIfAbsent(record.isbn(), record);
+        }
+        int duplicateCount = chunk.size() - byIsbn.size();
+        for (String isbn : isbnFilter.findExisting(byIsbn.keySet(), bookRepository::findIsbnsIn)) {
+            byIsbn.remove(isbn);
+            duplicateCount++;
+        }
+
+        Set<String> emails = byIsbn.values().stream()
+                .flatMap(record -> record.authors().stream())
+                .map(CatalogRecord.AuthorEntry::email)
+                .collect(Collectors.toSet());
+        Map<String, Author> authors = new HashMap<>();
+        authorEmailFilter.findExisting(emails, authorRepository::findAllByEmailIn)
+                .forEach(author -> authors.put(author.getEmail(), author));
+
+        int authorsCreated = 0;
+        List<Book> books = new ArrayList<>(byIsbn.size());
+        for (CatalogRecord record : byIsbn.values()) {
+            List<Author> bookAuthors = new ArrayList<>(record.authors().size());
+            for (CatalogRecord.AuthorEntry entry : record.authors()) {
+                Author author = authors.get(entry.email());
+                if (author == null) {
+                    author = new Author();
+                    author.setName(entry.name());
+                    author.setEmail(entry.email());
+                    entityManager.persist(author);
+                    authors.put(entry.email(), author);
+                    authorsCreated++;
+                }
+                if (!bookAuthors.contains(author)) {
+                    bookAuthors.add(author);
+                }
+            }
+
+            Book book = new Book();
+            book.setTitle(record.title());
+            book.setIsbn(record.isbn());
+            book.setPublicationYear(record.publicationYear());
+            book.setAvailableCopies(record.availableCopies());
+            book.setTotalCopies(record.totalCopies());
+            book.setAuthors(bookAuthors);
+            entityManager.persist(book);
+            books.add(book);
+        }
+        return new ChunkResult(books, authorsCreated, duplicateCount);
+    }
+
+    // Same rules as StoreBookRequest and StoreAuthorRequest.
+    private static String validate(CatalogRecord record) {
+        if (isBlank(record.title())) {
+            return "Title must not be empty";
+        }
+        if (record.isbn() == null || !ISBN.matcher(record.isbn()).matches()) {
+            return "Invalid ISBN format: " + record.isbn();
+        }
+        if (record.publicationYear() == null || record.publicationYear() < 1000) {
+            return "Publication year must be a valid year";
+        }
+        if (record.availableCopies() == null || record.availableCopies() < 0) {
+            return "Available copies must be zero or a positive number";
+        }
+        if (record.totalCopies() == null || record.totalCopies() < 0) {
+            return "Total copies must be zero or a positive number";
+        }
+        if (record.authors().isEmpty()) {
+            return "A book must have at least one author";
+        }
+        for (CatalogRecord.AuthorEntry author : record.authors()) {
+            if (isBlank(author.name())) {
+                return "Author name must not be empty";
+            }
+            if (isBlank(author.email()) || !author.email().contains("@")) {
+                return "Author email should be valid: " + author.email();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Counter records(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("catalog_import.records")
+                .description("Catalog import records by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record ChunkResult(List<Book> books, int authorsCreated, int duplicates) {
+    }
+
+    private final class Tally {
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+        private long lastProgressAt = startedAt;
+        private long records;
+        private long booksCreated;
+        private long authorsCreated;
+        private long duplicates;
+        private long rejectedCount;
+
+        private Tally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String reason) {
+            rejectedCount++;
+            rejected.increment();
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        void progress() {
+            long now = System.nanoTime();
+            if (now - lastProgressAt >= PROGRESS_INTERVAL_NANOS) {
+                lastProgressAt = now;
+                long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - startedAt));
+                logger.info("Catalog import: {} records read, {} books created ({}/s), {} rejected",
+                        records, booksCreated, booksCreated / seconds, rejectedCount);
+            }
+        }
+
+        CatalogImportReportDTO report() {
+            return new CatalogImportReportDTO(records, booksCreated, authorsCreated, duplicates, rejectedCount, List.copyOf(errors),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+}
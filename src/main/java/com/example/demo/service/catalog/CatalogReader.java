@@ -0,0 +1,13 @@
+package com.example.demo.service.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Parses a catalog file one record at a time, so only the current record is held in memory. */
+interface CatalogReader extends Closeable {
+    /**
+     * Returns the next record, or {@code null} at the end of the input. A record that cannot be
+     * parsed raises {@link MalformedRecordException}; the reader is then positioned after it.
+     */
+    CatalogRecord next() throws IOException;
+}
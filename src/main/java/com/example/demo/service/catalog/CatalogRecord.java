@@ -0,0 +1,11 @@
+package com.example.demo.service.catalog;
+
+import java.util.List;
+
+/** One book parsed from a catalog file, with the line it starts on for error reporting. */
+record CatalogRecord(long line, String title, String isbn, Integer publicationYear, Integer availableCopies,
+                     Integer totalCopies, List<AuthorEntry> authors) {
+
+    record AuthorEntry(String name, String email) {
+    }
+}
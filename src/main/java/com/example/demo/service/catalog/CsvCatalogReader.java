@@ -0,0 +1,154 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.exception.InvalidCatalogException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV: comma separated, fields optionally quoted, {@code ""} for a quote inside a quoted
+ * field, which may also span lines. Columns are found by their header name.
+ */
+class CsvCatalogReader implements CatalogReader {
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] COLUMNS = {"title", "isbn", "publication_year", "available_copies", "total_copies", "authors"};
+
+    private final BufferedReader reader;
+    private final int[] positions = new int[COLUMNS.length];
+    private final StringBuilder field = new StringBuilder();
+    private long line;
+    private long rowStart;
+
+    CsvCatalogReader(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+        List<String> header = readRow();
+        if (header == null) {
+            throw new InvalidCatalogException("The catalog is empty; expected a header row");
+        }
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Integer position = byName.get(COLUMNS[i]);
+            if (position == null) {
+                throw new InvalidCatalogException("The catalog header has no " + COLUMNS[i] + " column");
+            }
+            positions[i] = position;
+        }
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        List<String> row = readRow();
+        if (row == null) {
+            return null;
+        }
+        long start = rowStart;
+        return new CatalogRecord(start, column(row, 0), column(row, 1), number(row, 2, start), number(row, 3, start),
+                number(row, 4, start), authors(column(row, 5), start));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String column(List<String> row, int column) {
+        int position = positions[column];
+        if (position >= row.size()) {
+            return null;
+        }
+        String value = row.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer number(List<String> row, int column, long start) {
+        String value = column(row, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new MalformedRecordException(start, COLUMNS[column] + " is not a number: " + value);
+        }
+    }
+
+    // "Jane Doe <jane@example.com>; John Roe <john@example.com>"
+    private static List<CatalogRecord.AuthorEntry> authors(String value, long start) {
+        if (value == null) {
+            return List.of();
+        }
+        List<CatalogRecord.AuthorEntry> authors = new ArrayList<>();
+        for (String entry : value.split(";")) {
+            String author = entry.trim();
+            if (author.isEmpty()) {
+                continue;
+            }
+            int open = author.lastIndexOf('<');
+            if (open < 0 || !author.endsWith(">")) {
+                throw new MalformedRecordException(start, "Author must be written as Name <email>: " + author);
+            }
+            authors.add(new CatalogRecord.AuthorEntry(author.substring(0, open).trim(), author.substring(open + 1, author.length() - 1).trim()));
+        }
+        return authors;
+    }
+
+    // Returns the fields of the next non-blank row, or null at the end of the input.
+    private List<String> readRow() throws IOException {
+        List<String> row = new ArrayList<>();
+        field.setLength(0);
+        rowStart = line + 1;
+        boolean quoted = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                if (row.isEmpty() && field.isEmpty()) {
+                    rowStart = line + 1;
+                    continue;
+                }
+                row.add(field.toString());
+                return row;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new MalformedRecordException(rowStart, "Unterminated quoted field");
+        }
+        if (row.isEmpty() && field.isEmpty()) {
+            return null;
+        }
+        line++;
+        row.add(field.toString());
+        return row;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service.catalog;
+
+class MalformedRecordException extends RuntimeException {
+    private final long line;
+
+    MalformedRecordException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+
+    long line() {
+        return line;
+    }
+}
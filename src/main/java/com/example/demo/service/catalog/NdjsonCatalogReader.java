@@ -0,0 +1,51 @@
+package com.example.demo.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+class NdjsonCatalogReader implements CatalogReader {
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    NdjsonCatalogReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(reader, CsvCatalogReader.BUFFER_SIZE);
+        this.objectReader = objectMapper.readerFor(Entry.class);
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        Entry entry;
+        try {
+            entry = objectReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            throw new MalformedRecordException(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        return new CatalogRecord(line, entry.title(), entry.isbn(), entry.publicationYear(), entry.availableCopies(),
+                entry.totalCopies(), entry.authors() == null ? List.of() : entry.authors());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private record Entry(String title, String isbn, Integer publicationYear, Integer availableCopies, Integer totalCopies,
+                         List<CatalogRecord.AuthorEntry> authors) {
+    }
+}
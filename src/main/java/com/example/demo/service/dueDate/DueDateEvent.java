@@ -0,0 +1,22 @@
+package com.example.demo.service.dueDate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * One notification for one loan; {@code offset} is how long before the end of the due date a
+ * {@link Type#DUE_SOON} reminder fires and is {@code null} for the other types.
+ */
+public record DueDateEvent(Long transactionId, LocalDate dueDate, Type type, Duration offset) {
+    public enum Type {
+        DUE_SOON,
+        DUE_NOW,
+        OVERDUE
+    }
+
+    String deliveryKey() {
+        String key = type.name().toLowerCase(Locale.ROOT).replace('_', '-') + "." + transactionId + "." + dueDate;
+        return offset == null ? key : key + "." + offset.toMinutes() + "m";
+    }
+}
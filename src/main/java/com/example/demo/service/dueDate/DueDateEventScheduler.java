@@ -0,0 +1,215 @@
+package com.example.demo.service.dueDate;
+
+import com.example.demo.config.DueDateEventProperties;
+import com.example.demo.dto.borrowTransaction.LoanDueDateDTO;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.service.borrowTransaction.LoanBorrowedEvent;
+import com.example.demo.service.borrowTransaction.LoanReturnedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a timer for every notification of every open loan in a {@link HierarchicalTimingWheel},
+ * so each fires at its own time instead of being found by a daily scan. Timers are added and
+ * cancelled as loans are borrowed and returned, after the transaction commits, and rebuilt from
+ * the open loans on startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "due-date-events", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DueDateEventScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DueDateEventScheduler.class);
+    // 64^4 one-second ticks is about six months; later deadlines wait in the wheel's overflow list.
+    private static final int WHEEL_LEVELS = 4;
+
+    private final DueDateEventProperties properties;
+    private final BorrowTransactionRepository borrowTransactionRepository;
+    private final DueDateNotifier dueDateNotifier;
+    private final Clock clock;
+    private final HierarchicalTimingWheel<DueDateEvent> wheel;
+    private final Map<Long, List<HierarchicalTimingWheel.Timeout<DueDateEvent>>> timeoutsByLoan = new HashMap<>();
+    // Events back in the wheel after failing; the wheel no longer holds them, so nothing else would send them.
+    private final Map<DueDateEvent, Retry> retries = new HashMap<>();
+    private final Map<DueDateEvent.Type, Counter> firedCounters = new EnumMap<>(DueDateEvent.Type.class);
+    private final ScheduledExecutorService ticker;
+
+    @Autowired
+    public DueDateEventScheduler(DueDateEventProperties properties, BorrowTransactionRepository borrowTransactionRepository,
+                                 DueDateNotifier dueDateNotifier, MeterRegistry meterRegistry) {
+        this(properties, borrowTransactionRepository, dueDateNotifier, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    DueDateEventScheduler(DueDateEventProperties properties, BorrowTransactionRepository borrowTransactionRepository,
+                          DueDateNotifier dueDateNotifier, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.borrowTransactionRepository = borrowTransactionRepository;
+        this.dueDateNotifier = dueDateNotifier;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(properties.tick().toMillis(), WHEEL_LEVELS, clock.millis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("due_date_events.scheduled", this, DueDateEventScheduler::scheduledCount)
+                .description("Due date notifications waiting to fire")
+                .register(meterRegistry);
+        for (DueDateEvent.Type type : DueDateEvent.Type.values()) {
+            firedCounters.put(type, Counter.builder("due_date_events.fired")
+                    .description("Due date notifications that came due")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLoanBorrowed(LoanBorrowedEvent event) {
+        schedule(event.transactionId(), event.dueDate());
+    }
+
+    @TransactionalEventListener
+    public void onLoanReturned(LoanReturnedEvent event) {
+        cancel(event.transactionId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void start() {
+        // A loan's last notification fires as its due date ends, so older loans have nothing left.
+        LocalDate oldestDueDate = LocalDateTime.now(clock).minus(properties.catchUp()).toLocalDate().minusDays(1);
+        try (Stream<LoanDueDateDTO> loans = borrowTransactionRepository.streamOpenLoansDueOnOrAfter(oldestDueDate)) {
+            loans.forEach(loan -> schedule(loan.transactionId(), loan.dueDate()));
+        }
+        long tickMillis = properties.tick().toMillis();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Replaces any timers for the loan with one per notification still ahead of it; notifications
+     * that came due within {@code catch-up} fire on the next tick.
+     */
+    public synchronized void schedule(Long transactionId, LocalDate dueDate) {
+        cancel(transactionId);
+
+        long now = clock.millis();
+        long notBefore = now - properties.catchUp().toMillis();
+        ZoneId zone = clock.getZone();
+        long dueDayStart = dueDate.atStartOfDay(zone).toInstant().toEpochMilli();
+        long dueBy = dueDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        List<HierarchicalTimingWheel.Timeout<DueDateEvent>> timeouts = new ArrayList<>();
+        for (Duration offset : properties.reminderOffsets()) {
+            add(timeouts, dueBy - offset.toMillis(), notBefore, new DueDateEvent(transactionId, dueDate, DueDateEvent.Type.DUE_SOON, offset));
+        }
+        add(timeouts, dueDayStart, notBefore, new DueDateEvent(transactionId, dueDate, DueDateEvent.Type.DUE_NOW, null));
+        add(timeouts, dueBy, notBefore, new DueDateEvent(transactionId, dueDate, DueDateEvent.Type.OVERDUE, null));
+        if (!timeouts.isEmpty()) {
+            timeoutsByLoan.put(transactionId, timeouts);
+        }
+    }
+
+    public synchronized void cancel(Long transactionId) {
+        List<HierarchicalTimingWheel.Timeout<DueDateEvent>> timeouts = timeoutsByLoan.remove(transactionId);
+        if (timeouts != null) {
+            timeouts.forEach(wheel::cancel);
+        }
+        retries.keySet().removeIf(event -> event.transactionId().equals(transactionId));
+    }
+
+    public synchronized int scheduledCount() {
+        return wheel.size();
+    }
+
+    void tick() {
+        List<DueDateEvent> due;
+        synchronized (this) {
+            due = wheel.advanceTo(clock.millis());
+            for (DueDateEvent event : due) {
+                if (event.type() == DueDateEvent.Type.OVERDUE) {
+                    timeoutsByLoan.remove(event.transactionId()); // last timer for this loan, bar retries
+                }
+            }
+        }
+
+        // Sent outside the lock so borrowing and returning never wait on the database or the outbox.
+        for (DueDateEvent event : due) {
+            Retry retry;
+            synchronized (this) {
+                retry = retries.remove(event);
+            }
+            if (retry == null) {
+                firedCounters.get(event.type()).increment();
+            }
+            try {
+                dueDateNotifier.notify(event);
+            } catch (RuntimeException e) {
+                retryLater(event, retry, e);
+            }
+        }
+    }
+
+    // A retry for a loan returned meanwhile is harmless: the notifier re-checks that it is open.
+    private synchronized void retryLater(DueDateEvent event, Retry previous, RuntimeException error) {
+        long now = clock.millis();
+        Retry retry = previous == null ? new Retry(1, now) : new Retry(previous.attempts() + 1, previous.firstFailedAt());
+        if (now - retry.firstFailedAt() > properties.catchUp().toMillis()) {
+            logger.error("Gave up on {} notification for transaction {} after {} attempt(s)",
+                    event.type(), event.transactionId(), retry.attempts(), error);
+            return;
+        }
+        long delay = backoffMillis(retry.attempts());
+        logger.warn("Failed to queue {} notification for transaction {}, retrying in {} ms",
+                event.type(), event.transactionId(), delay, error);
+        retries.put(event, retry);
+        timeoutsByLoan.computeIfAbsent(event.transactionId(), id -> new ArrayList<>())
+                .add(wheel.schedule(now + delay, event));
+    }
+
+    private long backoffMillis(int attempts) {
+        long initial = properties.retryBackoff().toMillis();
+        long ceiling = properties.maxRetryBackoff().toMillis();
+        long delay = initial << Math.min(attempts - 1, 30);
+        return delay < initial ? ceiling : Math.min(delay, ceiling);
+    }
+
+    private void add(List<HierarchicalTimingWheel.Timeout<DueDateEvent>> timeouts, long fireAt, long notBefore, DueDateEvent event) {
+        if (fireAt >= notBefore) {
+            timeouts.add(wheel.schedule(fireAt, event));
+        }
+    }
+
+    private record Retry(int attempts, long firstFailedAt) {
+    }
+}
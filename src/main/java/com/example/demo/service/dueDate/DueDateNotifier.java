@@ -0,0 +1,47 @@
+package com.example.demo.service.dueDate;
+
+import com.example.demo.dto.borrowTransaction.DueDateReminderDTO;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.service.outbox.OutboxService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class DueDateNotifier {
+    private final BorrowTransactionRepository borrowTransactionRepository;
+    private final OutboxService outboxService;
+
+    public DueDateNotifier(BorrowTransactionRepository borrowTransactionRepository, OutboxService outboxService) {
+        this.borrowTransactionRepository = borrowTransactionRepository;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Queues the email for {@code event}. Returns {@code false} if the loan has been returned in
+     * the meantime or the same notification was already queued.
+     */
+    @Transactional
+    public boolean notify(DueDateEvent event) {
+        Optional<DueDateReminderDTO> loan = borrowTransactionRepository.findOpenReminderById(event.transactionId());
+        if (loan.isEmpty() || !loan.get().dueDate().equals(event.dueDate())) {
+            return false;
+        }
+
+        DueDateReminderDTO reminder = loan.get();
+        String subject = switch (event.type()) {
+            case DUE_SOON -> "Reminder: '" + reminder.bookTitle() + "' is due on " + reminder.dueDate();
+            case DUE_NOW -> "'" + reminder.bookTitle() + "' is due today";
+            case OVERDUE -> "'" + reminder.bookTitle() + "' is overdue";
+        };
+        String body = switch (event.type()) {
+            case DUE_SOON -> "Hi,\n\nThis is a reminder that the item '" + reminder.bookTitle() +
+                    "' is due on " + reminder.dueDate() + ".\n\nPlease return it on time.\n\nThanks.";
+            case DUE_NOW -> "Hi,\n\nThe item '" + reminder.bookTitle() + "' is due back today.\n\nThanks.";
+            case OVERDUE -> "Hi,\n\nThe item '" + reminder.bookTitle() + "' was due on " + reminder.dueDate() +
+                    " and has not been returned yet. Please return it as soon as possible.\n\nThanks.";
+        };
+        return outboxService.enqueue(event.deliveryKey(), reminder.memberEmail(), subject, body);
+    }
+}
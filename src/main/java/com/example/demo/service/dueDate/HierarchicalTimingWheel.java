@@ -0,0 +1,191 @@
+package com.example.demo.service.dueDate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@code levels} wheels of 64 slots, each slot of level {@code n}
+ * spanning 64^n ticks. A timeout is filed in the lowest level whose range covers it and moved
+ * down a level each time its slot comes round, so scheduling and cancelling are O(1) and advancing
+ * one tick touches only the slots that are due. Deadlines beyond the top level wait in an overflow
+ * list that is re-filed once per top-level revolution.
+ *
+ * <p>Not thread-safe; callers serialise access.
+ */
+final class HierarchicalTimingWheel<T> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final Slot<T>[][] wheels;
+    private final Slot<T> overflow = new Slot<>();
+    private final Slot<T> expired = new Slot<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheels = new Slot[levels][WHEEL_SIZE];
+        for (Slot<T>[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheel[slot] = new Slot<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules {@code task} to be returned by the first {@link #advanceTo} at or after
+     * {@code deadlineMillis}; a deadline already passed is returned by the next call.
+     */
+    Timeout<T> schedule(long deadlineMillis, T task) {
+        Timeout<T> timeout = new Timeout<>(-Math.floorDiv(-deadlineMillis, tickMillis), task);
+        if (timeout.deadlineTick <= currentTick) {
+            expired.add(timeout);
+        } else {
+            file(timeout);
+        }
+        size++;
+        return timeout;
+    }
+
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns every task that came due, earlier
+     * ticks first.
+     */
+    List<T> advanceTo(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        drain(expired, due);
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            drain(wheels[0][(int) (currentTick & WHEEL_MASK)], due);
+        }
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // On a tick that starts a new revolution of level n, the level n slot now coming round holds
+    // timeouts due within the next 64^n ticks; re-file them lower. Higher levels go first so their
+    // timeouts land in lower slots before those are emptied in turn.
+    private void cascade() {
+        int level = 0;
+        while (level < levels && (currentTick & ((1L << (WHEEL_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        if (level == levels) {
+            refile(overflow);
+            level--;
+        }
+        for (; level >= 1; level--) {
+            refile(wheels[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)]);
+        }
+    }
+
+    // Detached first: a timeout can land back in the slot it came from (the overflow list, or a
+    // slot a whole revolution ahead when it was filed between boundaries).
+    private void refile(Slot<T> slot) {
+        Timeout<T> timeout = slot.detach();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            file(timeout);
+            timeout = next;
+        }
+    }
+
+    private void file(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta < 1L << (WHEEL_BITS * (level + 1))) {
+                wheels[level][(int) ((timeout.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    private void drain(Slot<T> slot, List<T> due) {
+        Timeout<T> timeout;
+        while ((timeout = slot.poll()) != null) {
+            size--;
+            due.add(timeout.task);
+        }
+    }
+
+    static final class Timeout<T> {
+        private final long deadlineTick;
+        private final T task;
+        private Slot<T> slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineTick, T task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        T task() {
+            return task;
+        }
+    }
+
+    // Intrusive doubly linked list, so a timeout can unlink itself without a search.
+    private static final class Slot<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+
+        Timeout<T> detach() {
+            Timeout<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+}
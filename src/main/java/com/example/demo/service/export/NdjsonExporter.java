@@ -0,0 +1,50 @@
+package com.example.demo.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a forward-only stream of entities as newline-delimited JSON. Must be called inside the
+ * transaction that owns the stream; the persistence context is cleared every {@code CLEAR_INTERVAL}
+ * rows so memory stays flat regardless of the table size.
+ */
+@Component
+public class NdjsonExporter {
+    private static final int CLEAR_INTERVAL = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectWriter objectWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writer();
+    }
+
+    public <E, D> long export(Stream<E> rows, Function<E, D> mapper, OutputStream outputStream) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            buffered.write(objectWriter.writeValueAsBytes(mapper.apply(iterator.next())));
+            buffered.write('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                buffered.flush();
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+}
@@ -4,29 +4,55 @@ import com.example.demo.dto.member.MemberDTO;
 import com.example.demo.exception.DuplicateEmailException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
 import com.example.demo.repository.member.MemberRepository;
 import com.example.demo.request.member.StoreMemberRequest;
 import com.example.demo.request.member.UpdateMemberRequest;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.specification.member.MemberSpecification;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MemberService {
     private final MemberRepository memberRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final UniqueKeyFilter memberEmailFilter;
 
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, NdjsonExporter ndjsonExporter,
+                         @Qualifier("memberEmailFilter") UniqueKeyFilter memberEmailFilter) {
         this.memberRepository = memberRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.memberEmailFilter = memberEmailFilter;
     }
 
-    public List<MemberDTO> getMembers() {
-        return memberRepository.findAll()
+    @Transactional(readOnly = true)
+    public List<MemberDTO> getMembers(String name, String email, Status status, Pageable pageable) {
+        return memberRepository.findAll(MemberSpecification.search(name, email, status), pageable)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long exportMembers(OutputStream outputStream) throws IOException {
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            return ndjsonExporter.export(members, this::convertToDTO, outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public MemberDTO getMember(Long id) {
         return memberRepository.findById(id)
                 .map(this::convertToDTO)
@@ -34,7 +60,7 @@ public class MemberService {
     }
 
     public MemberDTO postMember(StoreMemberRequest storeMemberRequest) {
-        if (memberRepository.existsByEmail(storeMemberRequest.email())) {
+        if (memberEmailFilter.exists(storeMemberRequest.email(), memberRepository::existsByEmail)) {
             throw new DuplicateEmailException("Email already in use");
         }
 
@@ -43,7 +69,7 @@ public class MemberService {
         member.setEmail(storeMemberRequest.email());
         member.setPhone(storeMemberRequest.phone());
         member.setStatus(storeMemberRequest.status());
-        return this.convertToDTO(memberRepository.save(member));
+        return this.convertToDTO(save(member));
     }
 
     public MemberDTO putMember(Long id, UpdateMemberRequest updateMemberRequest) {
@@ -51,7 +77,7 @@ public class MemberService {
                 .orElseThrow(() -> new ResourceNotFoundException("Member with id: " + id + " does not exists"));
 
         if (!member.getEmail().equals(updateMemberRequest.email())
-                && memberRepository.existsByEmail(updateMemberRequest.email())) {
+                && memberEmailFilter.exists(updateMemberRequest.email(), memberRepository::existsByEmail)) {
             throw new DuplicateEmailException("Email already in use");
         }
 
@@ -60,7 +86,7 @@ public class MemberService {
         member.setPhone(updateMemberRequest.phone() != null ? updateMemberRequest.phone() : member.getPhone());
         member.setMembershipDate(updateMemberRequest.membershipDate() != null ? updateMemberRequest.membershipDate() : member.getMembershipDate());
         member.setStatus(updateMemberRequest.status() != null ? updateMemberRequest.status() : member.getStatus());
-        return this.convertToDTO(memberRepository.save(member));
+        return this.convertToDTO(save(member));
     }
 
     public void deleteMember(Long id) {
@@ -71,7 +97,20 @@ public class MemberService {
         memberRepository.deleteById(id);
     }
 
-    private MemberDTO convertToDTO(Member member) {
+    // The filter only knows emails written through this instance; one written by another instance
+    // or by plain SQL passes the check and is caught here by the unique constraint instead.
+    private Member save(Member member) {
+        try {
+            return memberRepository.save(member);
+        } catch (DataIntegrityViolationException e) {
+            if (memberEmailFilter.rejected(member.getEmail(), e)) {
+                throw new DuplicateEmailException("Email already in use");
+            }
+            throw e;
+        }
+    }
+
+    MemberDTO convertToDTO(Member member) {
         return new MemberDTO(
                 member.getId(),
                 member.getName(),
@@ -0,0 +1,41 @@
+package com.example.demo.service.outbox;
+
+import com.example.demo.model.outbox.OutboxMessage;
+import com.example.demo.model.outbox.Status;
+import com.example.demo.repository.outbox.OutboxMessageRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class OutboxService {
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    public OutboxService(OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    /**
+     * Queues an email as part of the caller's transaction, so it is sent if and only if that
+     * transaction commits. Returns {@code false} if a message with the same key is already queued.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean enqueue(String deliveryKey, String recipient, String subject, String body) {
+        if (outboxMessageRepository.existsByDeliveryKey(deliveryKey)) {
+            return false;
+        }
+
+        OutboxMessage message = new OutboxMessage();
+        message.setDeliveryKey(deliveryKey);
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setStatus(Status.PENDING);
+        message.setCreatedAt(LocalDateTime.now());
+        message.setNextAttemptAt(message.getCreatedAt());
+        outboxMessageRepository.save(message);
+        return true;
+    }
+}
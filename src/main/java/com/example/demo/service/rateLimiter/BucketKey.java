@@ -0,0 +1,4 @@
+package com.example.demo.service.rateLimiter;
+
+record BucketKey(RateLimitPolicy policy, String client) {
+}
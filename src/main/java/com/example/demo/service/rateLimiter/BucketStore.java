@@ -0,0 +1,18 @@
+package com.example.demo.service.rateLimiter;
+
+/**
+ * Where token state lives. Implementations must be safe for concurrent use.
+ */
+interface BucketStore {
+    RateLimitResult tryConsume(BucketKey key);
+
+    /** Entries currently held in this instance's memory. */
+    long size();
+
+    long evictionCount();
+
+    /** Drops persisted state that has been idle long enough to be full again. */
+    default int purgeIdle() {
+        return 0;
+    }
+}
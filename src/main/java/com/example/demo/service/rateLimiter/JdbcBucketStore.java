@@ -0,0 +1,158 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.model.rateLimiter.RateLimitBucketState;
+import com.example.demo.repository.rateLimiter.RateLimitBucketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets shared by every instance through the {@code rate_limit_buckets} table.
+ *
+ * <p>Each instance leases a small batch of tokens from a row with a compare-and-swap on its
+ * version column and hands them out locally until they run out or the lease expires, so only
+ * about one request in {@code leaseSize} reaches the database. Tokens left in an expired lease
+ * are forfeited rather than returned: across N instances a client can get at most the limit,
+ * never N times it, and may get up to N leases fewer under very light traffic.
+ */
+final class JdbcBucketStore implements BucketStore {
+    private static final int MAX_ID_LENGTH = 255;
+
+    private final RateLimitBucketRepository repository;
+    private final Clock clock;
+    private final int leaseSize;
+    private final long leaseTtlMillis;
+    private final int maxAttempts;
+    private final Duration longestPeriod;
+    private final Cache<BucketKey, Lease> leases;
+
+    JdbcBucketStore(RateLimitBucketRepository repository, RateLimitProperties.Jdbc jdbc, long maxBuckets,
+                    Duration longestPeriod, Clock clock, Ticker ticker, Executor executor) {
+        this.repository = repository;
+        this.clock = clock;
+        this.leaseSize = Math.max(1, jdbc.leaseSize());
+        this.leaseTtlMillis = jdbc.leaseTtl().toMillis();
+        this.maxAttempts = Math.max(1, jdbc.maxAttempts());
+        this.longestPeriod = longestPeriod;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(jdbc.leaseTtl())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public RateLimitResult tryConsume(BucketKey key) {
+        Lease lease = leases.get(key, k -> new Lease());
+        synchronized (lease) {
+            long now = clock.millis();
+            if (lease.tokens > 0 && now < lease.expiresAt) {
+                lease.tokens--;
+                return new RateLimitResult(true, lease.sharedRemaining + lease.tokens, 0);
+            }
+
+            Grant grant = acquire(key, now);
+            if (grant.tokens == 0) {
+                lease.tokens = 0;
+                return RateLimitResult.rejected(grant.nanosToRefill);
+            }
+            lease.tokens = grant.tokens - 1;
+            lease.sharedRemaining = grant.remaining;
+            lease.expiresAt = now + leaseTtlMillis;
+            return new RateLimitResult(true, grant.remaining + lease.tokens, 0);
+        }
+    }
+
+    @Override
+    public long size() {
+        leases.cleanUp();
+        return leases.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return leases.stats().evictionCount();
+    }
+
+    @Override
+    public int purgeIdle() {
+        // A row untouched for a full period would be topped back up to capacity on its next
+        // read, so deleting it loses nothing; the longest period keeps every policy's rows safe.
+        return repository.deleteRefilledBefore(clock.millis() - longestPeriod.toMillis());
+    }
+
+    private Grant acquire(BucketKey key, long now) {
+        RateLimitPolicy policy = key.policy();
+        String id = rowId(key);
+        long periodMillis = policy.period().toMillis();
+        long want = Math.min(leaseSize, Math.max(1, policy.capacity() / 10));
+
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            Optional<RateLimitBucketState> row = repository.findStateById(id);
+            if (row.isEmpty()) {
+                long take = Math.min(want, policy.capacity());
+                try {
+                    repository.insert(id, policy.capacity() - take, now);
+                    return new Grant(take, policy.capacity() - take, 0);
+                } catch (DataIntegrityViolationException e) {
+                    continue; // another instance created it first
+                }
+            }
+
+            RateLimitBucketState state = row.get();
+            long tokens = state.tokens();
+            long refilledAt = state.refilledAt();
+            long elapsedPeriods = (now - refilledAt) / periodMillis;
+            if (elapsedPeriods > 0) {
+                tokens = policy.capacity();
+                refilledAt += elapsedPeriods * periodMillis;
+            }
+
+            long take = Math.min(want, tokens);
+            if (take == 0) {
+                return new Grant(0, 0, TimeUnit.MILLISECONDS.toNanos(refilledAt + periodMillis - now));
+            }
+            if (repository.compareAndSet(id, state.version(), tokens - take, refilledAt) == 1) {
+                return new Grant(take, tokens - take, 0);
+            }
+        }
+        // Lost every race: treat as empty rather than letting contention bypass the limit.
+        return new Grant(0, 0, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    static String rowId(BucketKey key) {
+        String id = key.policy().name() + '|' + key.client();
+        if (id.length() <= MAX_ID_LENGTH) {
+            return id;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.client().getBytes(StandardCharsets.UTF_8));
+            return key.policy().name() + "|#" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Lease {
+        private long tokens;
+        private long sharedRemaining;
+        private long expiresAt;
+    }
+
+    private record Grant(long tokens, long remaining, long nanosToRefill) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service.rateLimiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+
+import java.util.concurrent.Executor;
+
+final class LocalBucketStore implements BucketStore {
+    private final Cache<BucketKey, Bucket> cache;
+
+    LocalBucketStore(long maxBuckets, Ticker ticker, Executor executor) {
+        // A bucket left alone for a whole refill period is full again, so dropping it is
+        // indistinguishable from keeping it; the size cap bounds the store between expiries.
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(new IdleForRefillPeriod())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public RateLimitResult tryConsume(BucketKey key) {
+        Bucket bucket = cache.get(key, k -> k.policy().newBucket());
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            return new RateLimitResult(true, probe.getRemainingTokens(), 0);
+        }
+        return RateLimitResult.rejected(probe.getNanosToWaitForRefill());
+    }
+
+    @Override
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    private static final class IdleForRefillPeriod implements Expiry<BucketKey, Bucket> {
+        @Override
+        public long expireAfterCreate(BucketKey key, Bucket bucket, long currentTime) {
+            return key.policy().period().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(BucketKey key, Bucket bucket, long currentTime, long currentDuration) {
+            return key.policy().period().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(BucketKey key, Bucket bucket, long currentTime, long currentDuration) {
+            return key.policy().period().toNanos();
+        }
+    }
+}
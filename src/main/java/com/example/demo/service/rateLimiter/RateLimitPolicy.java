@@ -0,0 +1,111 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties.KeyType;
+import com.example.demo.config.RateLimitProperties.Policy;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * A configured {@link Policy} with its pattern parsed and its meters registered. There is exactly
+ * one instance per configured policy, so equality is identity.
+ */
+record RateLimitPolicy(String name, PathPattern pattern, Set<String> methods, long capacity, Duration period,
+                       KeyType key, String header, Rejections rejections) {
+    static final String MEMBER_HEADER = "X-Member-Id";
+
+    static RateLimitPolicy of(Policy policy, PathPatternParser parser, MeterRegistry meterRegistry) {
+        Set<String> methods = policy.methods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        return new RateLimitPolicy(policy.name(), parser.parse(policy.pattern()), methods, policy.capacity(),
+                policy.period(), policy.key(), policy.header(), new Rejections(policy.name(), meterRegistry));
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String value = switch (key) {
+            case IP -> null;
+            case IPV6_PREFIX -> ipv6Prefix(request.getRemoteAddr());
+            case HEADER -> request.getHeader(header);
+            case MEMBER -> request.getHeader(MEMBER_HEADER);
+        };
+        if (value == null || value.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        // Keep client-supplied identifiers out of the address namespace.
+        return key == KeyType.IPV6_PREFIX ? value : key.name() + ':' + value;
+    }
+
+    Bucket newBucket() {
+        Bandwidth limit = Bandwidth.classic(capacity, Refill.intervally(capacity, period));
+        return Bucket.builder().addLimit(limit).build();
+    }
+
+    static String ipv6Prefix(String address) {
+        // Only literal addresses are parsed, so this never triggers a DNS lookup.
+        if (address == null || address.indexOf(':') < 0) {
+            return address;
+        }
+        try {
+            InetAddress inetAddress = InetAddress.getByName(address);
+            if (inetAddress instanceof Inet6Address) {
+                return HexFormat.of().formatHex(inetAddress.getAddress(), 0, 8) + "::/64";
+            }
+            return inetAddress.getHostAddress();
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+
+    /**
+     * {@code rate_limiter.rejections} of this policy per endpoint, tagged with the URI template
+     * the request matched (as {@code http.server.requests} is) rather than the raw path.
+     */
+    static final class Rejections {
+        private final String policy;
+        private final MeterRegistry meterRegistry;
+        private final ConcurrentMap<String, Counter> byUri = new ConcurrentHashMap<>();
+
+        Rejections(String policy, MeterRegistry meterRegistry) {
+            this.policy = policy;
+            this.meterRegistry = meterRegistry;
+        }
+
+        void increment(HttpServletRequest request) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            byUri.computeIfAbsent(uri, u -> Counter.builder("rate_limiter.rejections")
+                    .description("Requests refused because their bucket was empty")
+                    .tag("policy", policy)
+                    .tag("uri", u)
+                    .register(meterRegistry)).increment();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
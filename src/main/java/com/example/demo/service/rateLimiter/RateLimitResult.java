@@ -0,0 +1,19 @@
+package com.example.demo.service.rateLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a rate limit check. {@code remaining} is -1 when no policy applied to the request.
+ */
+public record RateLimitResult(boolean allowed, long remaining, long retryAfterSeconds) {
+    public static final RateLimitResult UNLIMITED = new RateLimitResult(true, -1, 0);
+
+    static RateLimitResult rejected(long nanosToWait) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanosToWait + TimeUnit.SECONDS.toNanos(1) - 1);
+        return new RateLimitResult(false, 0, Math.max(1, seconds));
+    }
+
+    public boolean limited() {
+        return remaining >= 0;
+    }
+}
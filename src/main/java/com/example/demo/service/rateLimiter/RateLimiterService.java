@@ -1,26 +1,116 @@
 package com.example.demo.service.rateLimiter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.repository.rateLimiter.RateLimitBucketRepository;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
+import java.time.Clock;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 @Service
 public class RateLimiterService {
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    static final String MEMBER_HEADER = RateLimitPolicy.MEMBER_HEADER;
 
-    public boolean isAllowed(String key) {
-        Bucket bucket = cache.computeIfAbsent(key, this::newBucket);
-        return bucket.tryConsume(1);
+    private final List<PathPattern> exemptions;
+    private final List<RateLimitPolicy> policies;
+    private final BucketStore store;
+
+    @Autowired
+    public RateLimiterService(RateLimitProperties properties, MeterRegistry meterRegistry, RateLimitBucketRepository repository) {
+        this(properties, meterRegistry, repository, Clock.systemUTC(), Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    RateLimiterService(RateLimitProperties properties, MeterRegistry meterRegistry, RateLimitBucketRepository repository,
+                       Clock clock, Ticker ticker, Executor executor) {
+        // Patterns are parsed once here; per request the interceptor only walks these lists.
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.exemptions = properties.exempt().stream()
+                .map(parser::parse)
+                .collect(Collectors.toUnmodifiableList());
+        this.policies = properties.policies().stream()
+                .map(policy -> RateLimitPolicy.of(policy, parser, meterRegistry))
+                .collect(Collectors.toUnmodifiableList());
+
+        this.store = switch (properties.mode()) {
+            case LOCAL -> new LocalBucketStore(properties.maxBuckets(), ticker, executor);
+            case JDBC -> new JdbcBucketStore(repository, properties.jdbc(), properties.maxBuckets(),
+                    longestPeriod(policies), clock, ticker, executor);
+        };
+
+        Gauge.builder("rate_limiter.buckets", store, BucketStore::size)
+                .description("Buckets (in jdbc mode, token leases) currently held by this instance")
+                .tag("mode", properties.mode().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        FunctionCounter.builder("rate_limiter.evictions", store, BucketStore::evictionCount)
+                .description("Buckets dropped because they expired or the store was full")
+                .register(meterRegistry);
+    }
+
+    public RateLimitResult check(HttpServletRequest request) {
+        PathContainer path = pathWithinApplication(request);
+        for (PathPattern exemption : exemptions) {
+            if (exemption.matches(path)) {
+                return RateLimitResult.UNLIMITED;
+            }
+        }
+
+        RateLimitPolicy policy = match(request.getMethod(), path);
+        if (policy == null) {
+            return RateLimitResult.UNLIMITED;
+        }
+
+        RateLimitResult result = store.tryConsume(new BucketKey(policy, policy.clientKey(request)));
+        if (!result.allowed()) {
+            policy.rejections().increment(request);
+        }
+        return result;
+    }
+
+    public int purgeIdleBuckets() {
+        return store.purgeIdle();
+    }
+
+    long bucketCount() {
+        return store.size();
+    }
+
+    private RateLimitPolicy match(String method, PathContainer path) {
+        for (RateLimitPolicy policy : policies) {
+            if ((policy.methods().isEmpty() || policy.methods().contains(method)) && policy.pattern().matches(path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static PathContainer pathWithinApplication(HttpServletRequest request) {
+        if (ServletRequestPathUtils.hasParsedRequestPath(request)) {
+            return ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+        }
+        return RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
     }
 
-    private Bucket newBucket(String key) {
-        Refill refill = Refill.intervally(100, Duration.ofMinutes(10)); // 100 reqs per 10 mins
-        Bandwidth limit = Bandwidth.classic(100, refill);
-        return Bucket.builder().addLimit(limit).build();
+    private static Duration longestPeriod(List<RateLimitPolicy> policies) {
+        return policies.stream()
+                .map(RateLimitPolicy::period)
+                .max(Comparator.naturalOrder())
+                .orElse(Duration.ZERO);
     }
 }
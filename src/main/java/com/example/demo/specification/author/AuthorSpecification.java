@@ -0,0 +1,20 @@
+package com.example.demo.specification.author;
+
+import com.example.demo.model.author.Author;
+import org.springframework.data.jpa.domain.Specification;
+
+public class AuthorSpecification {
+    public static Specification<Author> hasName(String name) {
+        return (root, query, criteriaBuilder) -> name == null ? null : criteriaBuilder.like(root.get("name"), "%" + name + "%");
+    }
+
+    public static Specification<Author> hasEmail(String email) {
+        return (root, query, criteriaBuilder) -> email == null ? null : criteriaBuilder.equal(root.get("email"), email);
+    }
+
+    public static Specification<Author> search(String name, String email) {
+        Specification<Author> specification = Specification.where(hasName(name))
+                .and(hasEmail(email));
+        return specification;
+    }
+}
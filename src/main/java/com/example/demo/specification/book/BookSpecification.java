@@ -2,9 +2,17 @@ package com.example.demo.specification.book;
 
 import com.example.demo.model.author.Author;
 import com.example.demo.model.book.Book;
+import com.example.demo.search.book.SearchTerms;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 public class BookSpecification {
     public static Specification<Book> hasTitle(String title) {
         return (root, query, criteriaBuilder) -> title == null ? null : criteriaBuilder.like(root.get("title"), "%" + title + "%");
@@ -28,4 +36,34 @@ public class BookSpecification {
                 .and(hasAuthor(author));
         return specification;
     }
+
+    /**
+     * The matching rules of {@link com.example.demo.search.book.BookSearchIndex}, for the searches
+     * it does not answer: every title and author token must be a prefix of a word of the title or
+     * of one of the authors' names, ignoring case, and the ISBN must match ignoring punctuation.
+     */
+    public static Specification<Book> matches(String title, String isbn, String author) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (String token : SearchTerms.tokenize(title)) {
+                predicates.add(criteriaBuilder.like(root.get("searchTitle"), SearchTerms.prefixPattern(token)));
+            }
+            // One subquery per token: like the index, different tokens may match different authors.
+            for (String token : SearchTerms.tokenize(author)) {
+                Subquery<Long> authors = query.subquery(Long.class);
+                Root<Author> authorRoot = authors.from(Author.class);
+                Join<Author, Book> books = authorRoot.join("books");
+                authors.select(authorRoot.get("id"))
+                        .where(criteriaBuilder.equal(books.get("id"), root.get("id")),
+                                criteriaBuilder.like(authorRoot.get("searchName"), SearchTerms.prefixPattern(token)));
+                predicates.add(criteriaBuilder.exists(authors));
+            }
+            String normalizedIsbn = SearchTerms.normalizeIsbn(isbn);
+            if (!normalizedIsbn.isEmpty()) {
+                // Stored ISBNs are digits with an upper-case check digit X.
+                predicates.add(root.get("isbn").in(normalizedIsbn, normalizedIsbn.toUpperCase(Locale.ROOT)));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.demo.specification.borrowTransaction;
+
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import com.example.demo.model.borrowTransaction.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+public class BorrowTransactionSpecification {
+    public static Specification<BorrowTransaction> hasStatus(Status status) {
+        return (root, query, criteriaBuilder) -> status == null ? null : criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<BorrowTransaction> hasMember(Long memberId) {
+        return (root, query, criteriaBuilder) -> memberId == null ? null : criteriaBuilder.equal(root.get("member").get("id"), memberId);
+    }
+
+    public static Specification<BorrowTransaction> hasBook(Long bookId) {
+        return (root, query, criteriaBuilder) -> bookId == null ? null : criteriaBuilder.equal(root.get("book").get("id"), bookId);
+    }
+
+    public static Specification<BorrowTransaction> search(Status status, Long memberId, Long bookId) {
+        Specification<BorrowTransaction> specification = Specification.where(hasStatus(status))
+                .and(hasMember(memberId))
+                .and(hasBook(bookId));
+        return specification;
+    }
+}
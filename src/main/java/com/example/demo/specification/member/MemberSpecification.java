@@ -0,0 +1,26 @@
+package com.example.demo.specification.member;
+
+import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+public class MemberSpecification {
+    public static Specification<Member> hasName(String name) {
+        return (root, query, criteriaBuilder) -> name == null ? null : criteriaBuilder.like(root.get("name"), "%" + name + "%");
+    }
+
+    public static Specification<Member> hasEmail(String email) {
+        return (root, query, criteriaBuilder) -> email == null ? null : criteriaBuilder.equal(root.get("email"), email);
+    }
+
+    public static Specification<Member> hasStatus(Status status) {
+        return (root, query, criteriaBuilder) -> status == null ? null : criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Member> search(String name, String email, Status status) {
+        Specification<Member> specification = Specification.where(hasName(name))
+                .and(hasEmail(email))
+                .and(hasStatus(status));
+        return specification;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.uniqueKey;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows as keys are added (Almeida et al., "Scalable Bloom Filters"): when the
+ * newest segment holds as many keys as it was sized for, a segment of twice the capacity and half
+ * the false-positive rate is added, so the overall rate stays below the configured one however
+ * many keys arrive. A key is reported absent only if no segment has all of its bits set.
+ * <p>
+ * Lookups take no lock; bits are set with CAS so a lookup racing an add never sees a torn word.
+ * Adds are serialized.
+ */
+final class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    private static final double LN2 = Math.log(2);
+
+    private volatile Segment[] segments;
+
+    ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        // The segments' rates form a geometric series p0 * (1 + r + r^2 + ...) = p0 / (1 - r).
+        this.segments = new Segment[]{new Segment(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key, 0xcbf29ce484222325L);
+        long h2 = hash(key, 0x9e3779b97f4a7c15L) | 1;
+        for (Segment segment : segments) {
+            if (segment.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(String key) {
+        long h1 = hash(key, 0xcbf29ce484222325L);
+        long h2 = hash(key, 0x9e3779b97f4a7c15L) | 1;
+        Segment[] current = segments;
+        for (Segment segment : current) {
+            if (segment.mightContain(h1, h2)) {
+                // Already (or indistinguishably) present; counting it again would only fill the segment early.
+                return;
+            }
+        }
+        Segment last = current[current.length - 1];
+        if (last.count >= last.capacity) {
+            last = new Segment(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+            Segment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = last;
+            segments = grown;
+        }
+        last.add(h1, h2);
+    }
+
+    /** Keys added, not counting ones that were already reported present. */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /** Chance that a key never added is reported present, given how full each segment is. */
+    double expectedFalsePositiveRate() {
+        double allMiss = 1;
+        for (Segment segment : segments) {
+            allMiss *= 1 - segment.currentFalsePositiveRate();
+        }
+        return 1 - allMiss;
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    // FNV-1a over the UTF-16 units, finished with the MurmurHash3 64-bit mix so every bit of the
+    // result depends on every input bit.
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private volatile int count;
+
+        Segment(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            int wordCount = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount * Long.SIZE;
+            this.hashes = (int) Math.max(1, Math.round((double) bits / capacity * LN2));
+        }
+
+        // Kirsch-Mitzenmacher: the i-th probe is h1 + i * h2, which is as good as i independent hashes.
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+                combined += h2;
+            }
+            count++;
+        }
+
+        double currentFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * count / bits), hashes);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.demo.uniqueKey;
+
+import com.example.demo.config.UniqueKeyFilterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-check for one unique column, e.g. book ISBNs. A key the filter has never seen is
+ * certainly not in the database, so the uniqueness query is skipped; any other key is looked up
+ * as before. The filter is loaded from the database before the application takes requests, and
+ * {@link UniqueKeyListener} adds the key of every entity Hibernate inserts or updates.
+ * <p>
+ * Keys are never removed: a deleted or renamed key stays a possible hit and just costs the query
+ * it always did. Writes that bypass this instance's Hibernate (plain SQL, another replica) are not
+ * seen until the next {@link #rebuild()}; their keys are reported absent and the database's unique
+ * constraint rejects a duplicate instead, which callers tell apart with {@link #rejected}.
+ */
+public class UniqueKeyFilter implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(UniqueKeyFilter.class);
+    private final String name;
+    private final Function<Object, String> keyOf;
+    private final Supplier<Stream<String>> keys;
+    private final TransactionTemplate readTransaction;
+    private final UniqueKeyFilterProperties properties;
+    private final Counter absent;
+    private final Counter falsePositives;
+    private final Counter present;
+    // Null until first built; every key is a possible hit until then.
+    private volatile ScalableBloomFilter filter;
+
+    /**
+     * @param entityType the entity whose writes carry the key
+     * @param keyOf      reads the key from an entity being written
+     * @param keys       streams every key in the database, run in a read-only transaction
+     */
+    public <T> UniqueKeyFilter(String name, Class<T> entityType, Function<T, String> keyOf, Supplier<Stream<String>> keys,
+                               PlatformTransactionManager transactionManager, UniqueKeyFilterProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.name = name;
+        this.keyOf = entity -> entityType.isInstance(entity) ? keyOf.apply(entityType.cast(entity)) : null;
+        this.keys = keys;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        this.absent = lookups(meterRegistry, "absent");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.present = lookups(meterRegistry, "present");
+        Gauge.builder("unique_key_filter.memory", this, f -> f.filter == null ? 0 : f.filter.memoryBytes())
+                .description("Heap taken by the filter's bit arrays")
+                .baseUnit("bytes")
+                .tag("key", name)
+                .register(meterRegistry);
+        Gauge.builder("unique_key_filter.keys", this, f -> f.filter == null ? 0 : f.filter.size())
+                .description("Keys added to the filter, less those it already reported present")
+                .tag("key", name)
+                .register(meterRegistry);
+        Gauge.builder("unique_key_filter.false_positive_rate.expected", this, f -> f.filter == null ? 1 : f.filter.expectedFalsePositiveRate())
+                .description("False-positive rate the filter's fill predicts")
+                .tag("key", name)
+                .register(meterRegistry);
+        Gauge.builder("unique_key_filter.false_positive_rate.observed", this, UniqueKeyFilter::observedFalsePositiveRate)
+                .description("Share of keys missing from the database that the filter still sent to the database")
+                .tag("key", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Whether {@code key} is taken: false straight away if the filter has never seen it, otherwise
+     * whatever {@code query} says.
+     */
+    public boolean exists(String key, Predicate<String> query) {
+        if (!mightContain(key)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = query.test(key);
+        (exists ? present : falsePositives).increment();
+        return exists;
+    }
+
+    /**
+     * Batch form of {@link #exists}: runs {@code query} for only the keys the filter may have seen,
+     * and not at all if there are none. The query must return one result per key it finds.
+     */
+    public <T> List<T> findExisting(Collection<String> keys, Function<Collection<String>, List<T>> query) {
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        absent.increment(keys.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<T> found = query.apply(candidates);
+        present.increment(found.size());
+        falsePositives.increment(Math.max(0, candidates.size() - found.size()));
+        return found;
+    }
+
+    /**
+     * Whether the database refused a write of {@code key} because the key is taken, i.e. the write
+     * broke a unique constraint, the only kind an entity with one unique column besides its id
+     * can break on its key. The key is recorded either way, so later checks ask the database.
+     */
+    public boolean rejected(String key, DataIntegrityViolationException e) {
+        add(key);
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+
+    /** Records the key of an entity about to be written, if it is one this filter covers. */
+    public void written(Object entity) {
+        add(keyOf.apply(entity));
+    }
+
+    /** Records a key being written; call it before the write commits. */
+    public void add(String key) {
+        ScalableBloomFilter current = filter;
+        if (current != null && key != null) {
+            current.add(key);
+        }
+    }
+
+    /**
+     * Reloads the filter from the database, shedding deleted keys. Keys of writes still
+     * uncommitted while it reads are missed, so call it only with no writes in flight, e.g. at
+     * startup.
+     */
+    public void rebuild() {
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(properties.initialCapacity(), properties.falsePositiveRate());
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<String> all = keys.get()) {
+                all.forEach(rebuilt::add);
+            }
+        });
+        filter = rebuilt;
+        logger.info("Unique key filter {} loaded with {} keys in {} segment(s), {} KiB",
+                name, rebuilt.size(), rebuilt.segmentCount(), rebuilt.memoryBytes() / 1024);
+    }
+
+    private boolean mightContain(String key) {
+        ScalableBloomFilter current = filter;
+        return current == null || key == null || current.mightContain(key);
+    }
+
+    private double observedFalsePositiveRate() {
+        double notInDatabase = absent.count() + falsePositives.count();
+        return notInDatabase == 0 ? 0 : falsePositives.count() / notInDatabase;
+    }
+
+    private Counter lookups(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("unique_key_filter.lookups")
+                .description("Uniqueness checks by what the filter and, if asked, the database answered")
+                .tag("key", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
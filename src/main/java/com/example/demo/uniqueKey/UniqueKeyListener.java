@@ -0,0 +1,36 @@
+package com.example.demo.uniqueKey;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * Entity listener that hands every book, author and member Hibernate is about to insert or update
+ * to the {@link UniqueKeyFilter}s, so writes through any repository, not just the services, keep
+ * the filters current. Hibernate creates it through Spring; the filters are only looked up on
+ * first use because they depend on repositories, which need the entity manager factory this
+ * listener is part of.
+ */
+public class UniqueKeyListener {
+    private final ObjectProvider<UniqueKeyFilter> filterProvider;
+    private volatile List<UniqueKeyFilter> filters;
+
+    public UniqueKeyListener(ObjectProvider<UniqueKeyFilter> filterProvider) {
+        this.filterProvider = filterProvider;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void written(Object entity) {
+        List<UniqueKeyFilter> current = filters;
+        if (current == null) {
+            current = filterProvider.orderedStream().toList();
+            filters = current;
+        }
+        for (UniqueKeyFilter filter : current) {
+            filter.written(entity);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.demo.validation;
 
-import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.request.borrowTransaction.BorrowPeriod;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 import java.time.LocalDate;
 
-public class DueDateAfterBorrowDateValidator implements ConstraintValidator<DueDateAfterBorrowDate, BorrowTransactionRequest> {
+public class DueDateAfterBorrowDateValidator implements ConstraintValidator<DueDateAfterBorrowDate, BorrowPeriod> {
     @Override
-    public boolean isValid(BorrowTransactionRequest value, ConstraintValidatorContext context) {
+    public boolean isValid(BorrowPeriod value, ConstraintValidatorContext context) {
         if (value == null) {
             return true;
         }
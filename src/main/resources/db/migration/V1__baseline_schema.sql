@@ -0,0 +1,90 @@
+-- Schema as Hibernate generated it before migrations were introduced.
+
+CREATE TABLE authors (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    bio TEXT,
+    birth_date DATE,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE books (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255) NOT NULL,
+    isbn VARCHAR(255) NOT NULL UNIQUE,
+    publication_year INTEGER,
+    available_copies INTEGER,
+    total_copies INTEGER,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE author_book (
+    book_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    CONSTRAINT fk_author_book_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_author_book_author FOREIGN KEY (author_id) REFERENCES authors (id)
+);
+
+CREATE TABLE members (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    phone VARCHAR(255) NOT NULL,
+    status ENUM ('ACTIVE', 'INACTIVE'),
+    membership_date TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE borrow_transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    borrow_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE,
+    status ENUM ('BORROWED', 'RETURNED') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_borrow_transactions_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_borrow_transactions_member FOREIGN KEY (member_id) REFERENCES members (id)
+);
+
+CREATE TABLE reminder_checkpoints (
+    due_date DATE NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    queued BIGINT NOT NULL,
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (due_date)
+);
+
+CREATE TABLE rate_limit_buckets (
+    id VARCHAR(255) NOT NULL,
+    tokens BIGINT NOT NULL,
+    refilled_at BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE outbox_messages (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    delivery_key VARCHAR(255) NOT NULL UNIQUE,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body VARCHAR(4000) NOT NULL,
+    status ENUM ('DEAD', 'PENDING', 'SENT') NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    claim_token VARCHAR(36),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6) NOT NULL,
+    sent_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_messages_status_next_attempt ON outbox_messages (status, next_attempt_at);
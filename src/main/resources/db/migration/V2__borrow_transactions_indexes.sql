@@ -0,0 +1,8 @@
+-- Borrow-limit check and member history: member_id = ? [AND status = ?]
+CREATE INDEX idx_borrow_transactions_member_status ON borrow_transactions (member_id, status);
+
+-- Duplicate-loan check on borrow and the lookup on return: member_id = ? AND book_id = ? AND status = ?
+CREATE INDEX idx_borrow_transactions_member_book_status ON borrow_transactions (member_id, book_id, status);
+
+-- Reminder runs and the due date timer rebuild: due_date = ? / >= ? AND status = ?
+CREATE INDEX idx_borrow_transactions_due_date_status ON borrow_transactions (due_date, status);
@@ -0,0 +1,24 @@
+-- Ids come from pooled sequences instead of identity columns, so Hibernate can batch inserts.
+-- INCREMENT BY is the number of ids Hibernate takes per call and must equal
+-- spring.jpa.properties.library.id.allocation_size. Hibernate hands out the block ending at the
+-- value it reads, so each sequence restarts one full block past the highest existing id.
+
+CREATE SEQUENCE authors_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE authors_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM authors);
+ALTER TABLE authors ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE books_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE books_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM books);
+ALTER TABLE books ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE members_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE members_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM members);
+ALTER TABLE members ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE borrow_transactions_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE borrow_transactions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM borrow_transactions);
+ALTER TABLE borrow_transactions ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE outbox_messages_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE outbox_messages_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM outbox_messages);
+ALTER TABLE outbox_messages ALTER COLUMN id DROP IDENTITY;
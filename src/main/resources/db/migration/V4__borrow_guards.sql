@@ -0,0 +1,17 @@
+-- Open loans per member, moved only by the guarded updates in MemberRepository so the borrow
+-- limit holds across instances: active_loans + n <= limit.
+ALTER TABLE members ADD COLUMN active_loans INT DEFAULT 0 NOT NULL;
+
+UPDATE members SET active_loans = (
+    SELECT COUNT(*) FROM borrow_transactions bt WHERE bt.member_id = members.id AND bt.status = 'BORROWED'
+);
+
+-- book_id while the loan is open, NULL once returned: one open loan per member and book.
+ALTER TABLE borrow_transactions ADD COLUMN open_book_id BIGINT;
+
+UPDATE borrow_transactions SET open_book_id = book_id WHERE status = 'BORROWED';
+
+ALTER TABLE borrow_transactions ADD CONSTRAINT uk_borrow_transactions_member_open_book UNIQUE (member_id, open_book_id);
+
+-- The duplicate-loan check it served is now the unique key above.
+DROP INDEX idx_borrow_transactions_member_book_status;
@@ -0,0 +1,8 @@
+-- Titles and author names tokenized as the search index does (SearchTerms.asText), so searches
+-- the index cannot answer (sorted, keyset, or while it is loading) match the same books:
+-- lower-cased runs of letters and digits, each preceded by one space.
+ALTER TABLE books ADD COLUMN search_title VARCHAR(512);
+UPDATE books SET search_title = ' ' || TRIM(REGEXP_REPLACE(LOWER(title), '[^\p{L}\p{N}]+', ' '));
+
+ALTER TABLE authors ADD COLUMN search_name VARCHAR(512);
+UPDATE authors SET search_name = ' ' || TRIM(REGEXP_REPLACE(LOWER(name), '[^\p{L}\p{N}]+', ' '));
@@ -0,0 +1,246 @@
+package com.example.demo.config;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.util.TestDataSetup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Sweeps the connection pool through increasing sizes under a fixed number of clients, each
+ * alternating a search, a borrow and the matching return, and prints throughput, latency and
+ * pool wait per size. The knee is the smallest size past which doubling the pool gains less than
+ * {@value #KNEE_GAIN_PERCENT}% throughput; sizing beyond it only adds connections the database
+ * has to serve. Run with {@code mvn test -Ploadtest}, optionally with
+ * {@code -Dloadtest.pool-sizes=1,2,4,8,16 -Dloadtest.clients=64 -Dloadtest.seconds=5}.
+ */
+@Tag("loadtest")
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=30000",
+        "rate-limiter.exempt=/**"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ConnectionPoolSizingLoadTest {
+    private static final int KNEE_GAIN_PERCENT = 10;
+    private static final int BOOKS_PER_CLIENT = 2;
+
+    private final int[] poolSizes = Arrays.stream(System.getProperty("loadtest.pool-sizes", "1,2,4,8,16").split(","))
+            .mapToInt(size -> Integer.parseInt(size.trim()))
+            .sorted()
+            .toArray();
+    private final int clients = Integer.getInteger("loadtest.clients", 64);
+    private final long stepNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("loadtest.seconds", 5));
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void sweepPoolSizes_ShouldReportThroughputKnee() throws Exception {
+        testDataSetup.cleanAll();
+        List<Author> authors = testDataSetup.createAuthors();
+        List<Book> books = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < clients * BOOKS_PER_CLIENT; i++) {
+            Book book = new Book();
+            book.setTitle("Load Book " + i);
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(2000);
+            book.setAvailableCopies(1_000);
+            book.setTotalCopies(1_000);
+            book.setAuthors(List.of(authors.get(i % authors.size())));
+            books.add(book);
+        }
+        for (int i = 0; i < clients; i++) {
+            Member member = new Member();
+            member.setName("Load Member " + i);
+            member.setEmail("load.member" + i + "@example.com");
+            member.setPhone("555-0000");
+            member.setMembershipDate(LocalDateTime.now());
+            member.setStatus(Status.ACTIVE);
+            members.add(member);
+        }
+        books = bookRepository.saveAll(books);
+        members = memberRepository.saveAll(members);
+        bookSearchIndex.rebuild();
+
+        HikariConfigMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariConfigMXBean();
+        // Warm-up at the first size, so it does not pay for class loading and JIT.
+        step(pool, poolSizes[0], books, members);
+
+        List<Step> steps = new ArrayList<>();
+        for (int size : poolSizes) {
+            steps.add(step(pool, size, books, members));
+        }
+
+        Step knee = steps.get(steps.size() - 1);
+        for (int i = 0; i < steps.size() - 1; i++) {
+            if (steps.get(i + 1).throughput() < steps.get(i).throughput() * (100 + KNEE_GAIN_PERCENT) / 100) {
+                knee = steps.get(i);
+                break;
+            }
+        }
+        System.out.printf("Connection pool sweep, %d clients:%n", clients);
+        steps.forEach(step -> System.out.println("  " + step));
+        System.out.printf("Throughput knee at a pool of %d connections (%.0f req/s)%n", knee.poolSize(), knee.throughput());
+
+        assertTrue(steps.stream().allMatch(step -> step.errors() == 0), "Requests failed: " + steps);
+    }
+
+    // Grows the pool (Hikari adds connections on demand up to the new maximum) and runs every
+    // client for one step's duration.
+    private Step step(HikariConfigMXBean pool, int size, List<Book> books, List<Member> members) throws Exception {
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(size);
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        long acquireCount = acquire.count();
+        double acquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + stepNanos;
+        for (int c = 0; c < clients; c++) {
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+            Member member = members.get(c);
+            List<Book> clientBooks = books.subList(c * BOOKS_PER_CLIENT, (c + 1) * BOOKS_PER_CLIENT);
+            results.add(executor.submit(() -> client(mockMvc, member, clientBooks, deadline)));
+        }
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (Future<long[]> result : results) {
+            long[] client = result.get();
+            errors += client[0];
+            for (int i = 1; i < client.length; i++) {
+                latencies.add(client[i]);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        latencies.sort(null);
+        long acquires = acquire.count() - acquireCount;
+        double meanWaitMillis = acquires == 0 ? 0 : (acquire.totalTime(TimeUnit.NANOSECONDS) - acquireNanos) / acquires / 1e6;
+        return new Step(size, latencies.size(), errors, elapsed, percentile(latencies, 50), percentile(latencies, 99), meanWaitMillis);
+    }
+
+    // Returns the error count followed by the latency of every request, in nanoseconds.
+    private long[] client(MockMvc mockMvc, Member member, List<Book> books, long deadline) throws Exception {
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (int i = 0; System.nanoTime() < deadline; i++) {
+            Book book = books.get(i % books.size());
+
+            long start = System.nanoTime();
+            int searched = mockMvc.perform(get("/api/books/search").param("title", "Load Book " + i % 100).param("size", "20"))
+                    .andReturn().getResponse().getStatus();
+            latencies.add(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            BorrowTransactionRequest request = new BorrowTransactionRequest(book.getId(), member.getId(), LocalDate.now(), null);
+            var borrowed = mockMvc.perform(post("/api/transactions/borrow")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andReturn().getResponse();
+            latencies.add(System.nanoTime() - start);
+
+            int returned = 200;
+            if (borrowed.getStatus() == 201) {
+                Number transactionId = JsonPath.read(borrowed.getContentAsString(), "$.data.id");
+                start = System.nanoTime();
+                returned = mockMvc.perform(put("/api/transactions/{id}/return", transactionId.longValue()))
+                        .andReturn().getResponse().getStatus();
+                latencies.add(System.nanoTime() - start);
+            }
+            if (searched != 200 || borrowed.getStatus() != 201 || returned != 200) {
+                errors++;
+            }
+        }
+        long[] result = new long[latencies.size() + 1];
+        result[0] = errors;
+        for (int i = 0; i < latencies.size(); i++) {
+            result[i + 1] = latencies.get(i);
+        }
+        return result;
+    }
+
+    private static double percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private record Step(int poolSize, long requests, long errors, long elapsedNanos, double p50Millis, double p99Millis,
+                        double meanWaitMillis) {
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pool %3d: %7.0f req/s, p50 %6.2f ms, p99 %7.2f ms, mean wait for a connection %6.2f ms, %d errors",
+                    poolSize, throughput(), p50Millis, p99Millis, meanWaitMillis, errors);
+        }
+    }
+}
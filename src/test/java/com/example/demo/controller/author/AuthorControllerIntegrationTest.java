@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,6 +47,9 @@ class AuthorControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -216,6 +220,28 @@ class AuthorControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", containsString("Author with id: 999 does not exists")));
     }
 
+    @Test
+    void postAuthor_ShouldReturnBadRequestWhenEmailWasWrittenBehindTheFilter() throws Exception {
+        // Plain SQL, as another instance would write it: the email filter never sees this key.
+        insertAuthorDirectly("john@example.com");
+
+        StoreAuthorRequest request = new StoreAuthorRequest(
+            "John Doe",
+            "john@example.com",
+            "Famous author",
+            LocalDate.of(1980, 1, 1)
+        );
+
+        mockMvc.perform(post("/api/authors")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is("error")))
+                .andExpect(jsonPath("$.message", is("Email already in use")));
+
+        assertEquals(1, authorRepository.count());
+    }
+
     @Test
     void putAuthor_ShouldReturnBadRequestWhenEmailAlreadyExists() throws Exception {
         Author author1 = createAuthor("John Doe", "john@example.com", "Bio 1");
@@ -239,6 +265,27 @@ class AuthorControllerIntegrationTest {
                 .andExpect(jsonPath("$.message", is("Email already in use")));
     }
 
+    @Test
+    void putAuthor_ShouldReturnBadRequestWhenEmailWasWrittenBehindTheFilter() throws Exception {
+        Author savedAuthor = authorRepository.save(createAuthor("John Doe", "john@example.com", "Bio 1"));
+        insertAuthorDirectly("jane@example.com");
+
+        UpdateAuthorRequest request = new UpdateAuthorRequest(
+            "John Updated",
+            "jane@example.com",
+            "Updated bio",
+            LocalDate.of(1980, 1, 1)
+        );
+
+        mockMvc.perform(put("/api/authors/{id}", savedAuthor.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Email already in use")));
+
+        assertEquals("john@example.com", authorRepository.findById(savedAuthor.getId()).orElseThrow().getEmail());
+    }
+
     @Test
     void deleteAuthor_ShouldDeleteAuthorSuccessfully() throws Exception {
         Author author = createAuthor("John Doe", "john@example.com", "Bio");
@@ -289,4 +336,8 @@ class AuthorControllerIntegrationTest {
         author.setBirthDate(LocalDate.of(1980, 1, 1));
         return author;
     }
+
+    private void insertAuthorDirectly(String email) {
+        jdbcTemplate.update("INSERT INTO authors (id, name, email) VALUES (1000000, 'Other Instance', ?)", email);
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.demo.controller.book;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.util.TestDataSetup;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares GET /api/books/{id} latency with a warm second-level cache against the same requests
+ * with every region evicted beforehand, which is what each request costs with the cache off.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "rate-limiter.exempt=/**")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BookCacheBenchmarkTest {
+    private static final int BOOK_COUNT = 500;
+    private static final int WARMUP = 2_000;
+    private static final int MEASURED = 10_000;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getBook_p99LatencyWithCacheOnAndOff() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        testDataSetup.cleanAll();
+        List<Author> authors = testDataSetup.createAuthors();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(2000);
+            book.setAvailableCopies(1);
+            book.setTotalCopies(1);
+            book.setAuthors(Arrays.asList(authors.get(i % authors.size())));
+            books.add(book);
+        }
+        List<Long> ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+
+        run(mockMvc, ids, WARMUP, false);
+        long[] cold = run(mockMvc, ids, MEASURED, true);
+        run(mockMvc, ids, WARMUP, false);
+        long[] warm = run(mockMvc, ids, MEASURED, false);
+
+        long coldP99 = percentile(cold, 0.99);
+        long warmP99 = percentile(warm, 0.99);
+        System.out.printf("GET /api/books/{id} p50 off=%,d ns on=%,d ns%n", percentile(cold, 0.50), percentile(warm, 0.50));
+        System.out.printf("GET /api/books/{id} p99 off=%,d ns on=%,d ns%n", coldP99, warmP99);
+        assertTrue(warmP99 < coldP99, "Expected the cache to lower p99 latency");
+    }
+
+    private long[] run(MockMvc mockMvc, List<Long> ids, int requests, boolean evictFirst) throws Exception {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            if (evictFirst) {
+                entityManagerFactory.getCache().evictAll();
+            }
+            long start = System.nanoTime();
+            mockMvc.perform(get("/api/books/{id}", ids.get(i % ids.size()))).andExpect(status().isOk());
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.demo.controller.book;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.author.AuthorRepository;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.util.TestDataSetup;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookControllerIntegrationTest {
+    private static final int BOOK_COUNT = 30;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private List<Author> authors;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testDataSetup.cleanAll();
+
+        authors = testDataSetup.createAuthors();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Book book = new Book();
+            book.setTitle("Catalog Book " + i);
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(2000 + i);
+            book.setAvailableCopies(3);
+            book.setTotalCopies(3);
+            book.setAuthors(Arrays.asList(authors.get(i % authors.size()), authors.get((i + 1) % authors.size())));
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+        bookSearchIndex.rebuild();
+    }
+
+    @Test
+    void getBooks_ShouldReturnAuthorSummaries() throws Exception {
+        mockMvc.perform(get("/api/books").param("size", "1").param("sort", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].authors", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].authors[0].id", notNullValue()))
+                .andExpect(jsonPath("$.data[0].authors[0].name", notNullValue()))
+                .andExpect(jsonPath("$.data[0].authors[0].email").doesNotExist());
+    }
+
+    @Test
+    void getBooks_ShouldIssueSameNumberOfStatementsRegardlessOfPageSize() throws Exception {
+        long smallPage = statementsFor("/api/books?size=5");
+        long largePage = statementsFor("/api/books?size=25");
+
+        assertEquals(smallPage, largePage);
+        // page query + count query + one join fetch for the authors of the whole page
+        assertTrue(largePage <= 3, "Expected at most 3 statements but was " + largePage);
+    }
+
+    @Test
+    void searchBooks_ShouldIssueSameNumberOfStatementsRegardlessOfPageSize() throws Exception {
+        long smallPage = statementsFor("/api/books/search?title=Catalog&size=5");
+        long largePage = statementsFor("/api/books/search?title=Catalog&size=25");
+
+        assertEquals(smallPage, largePage);
+        // matches come from the search index, only the page itself is loaded
+        assertEquals(1, largePage);
+    }
+
+    @Test
+    void searchBooks_ShouldAnswerFromIndexWithRankingAndPaging() throws Exception {
+        mockMvc.perform(get("/api/books/search").param("title", "catalog book 7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title", is("Catalog Book 7")));
+
+        mockMvc.perform(get("/api/books/search").param("title", "Catalog").param("page", "1").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(BOOK_COUNT - 20)));
+
+        mockMvc.perform(get("/api/books/search").param("author", "jane sm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(BOOK_COUNT * 2 / 3)));
+
+        mockMvc.perform(get("/api/books/search").param("isbn", String.format("978%010d", 12)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title", is("Catalog Book 12")));
+    }
+
+    @Test
+    void searchBooks_ShouldMatchTheSameBooksWithAndWithoutTheIndex() throws Exception {
+        List<Map<String, String>> queries = List.of(
+                Map.of("title", "CATALOG bo"),
+                Map.of("title", "atalog"),
+                Map.of("title", "book 1"),
+                Map.of("author", "jane sm"),
+                Map.of("author", "smith doe", "title", "book"),
+                Map.of("isbn", "978-0000000012"));
+        for (Map<String, String> query : queries) {
+            Set<Integer> ranked = searchIds(query, Map.of("size", "100"));
+            Set<Integer> sorted = searchIds(query, Map.of("size", "100", "sort", "title"));
+
+            Set<Integer> walked = new HashSet<>();
+            String cursor = "";
+            do {
+                String body = search(query, Map.of("size", "7", "after", cursor));
+                walked.addAll(JsonPath.<List<Integer>>read(body, "$.data[*].id"));
+                cursor = JsonPath.<Map<String, Object>>read(body, "$").containsKey("nextCursor") ? JsonPath.read(body, "$.nextCursor") : null;
+            } while (cursor != null);
+
+            assertEquals(ranked, sorted, "sorted search differs for " + query);
+            assertEquals(ranked, walked, "keyset search differs for " + query);
+        }
+        assertEquals(11, searchIds(Map.of("title", "book 1"), Map.of("size", "100")).size());
+        assertTrue(searchIds(Map.of("title", "atalog"), Map.of("size", "100", "sort", "title")).isEmpty());
+    }
+
+    @Test
+    void getAuthorBooks_ShouldIssueSingleQueryForBooksAndAuthors() throws Exception {
+        long statements = statementsFor("/api/authors/" + authors.get(0).getId() + "/books");
+
+        // existsById + one join fetch of the author's books together with all their authors
+        assertTrue(statements <= 2, "Expected at most 2 statements but was " + statements);
+    }
+
+    @Test
+    void getAuthorBooks_ShouldBeAnsweredFromQueryCacheOnRepeat() throws Exception {
+        String url = "/api/authors/" + authors.get(0).getId() + "/books";
+        statementsFor(url);
+
+        long repeat = statementsFor(url);
+
+        // only the existsById check still reaches the database
+        assertTrue(repeat <= 1, "Expected at most 1 statement but was " + repeat);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void getBook_ShouldBeServedFromSecondLevelCacheUntilUpdated() throws Exception {
+        Book book = bookRepository.findAll().get(0);
+        String url = "/api/books/" + book.getId();
+        statementsFor(url);
+
+        assertEquals(0, statementsFor(url));
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+        book.setTitle("Renamed In Place");
+        bookRepository.save(book);
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title", is("Renamed In Place")));
+    }
+
+    @Test
+    void getBooks_ShouldWalkAllBooksWithKeysetCursor() throws Exception {
+        Set<String> titles = new HashSet<>();
+        String cursor = "";
+        int slices = 0;
+        do {
+            String body = mockMvc.perform(get("/api/books")
+                            .param("after", cursor)
+                            .param("size", "7")
+                            .param("sort", "title,desc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> sliceTitles = JsonPath.read(body, "$.data[*].title");
+            sliceTitles.forEach(title -> assertTrue(titles.add(title), "Duplicate book across slices: " + title));
+            cursor = JsonPath.<Map<String, Object>>read(body, "$").containsKey("nextCursor") ? JsonPath.read(body, "$.nextCursor") : null;
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(BOOK_COUNT, titles.size());
+        assertEquals(5, slices);
+    }
+
+    @Test
+    void getBooks_ShouldCostTheSameForEveryKeysetSlice() throws Exception {
+        String body = mockMvc.perform(get("/api/books").param("after", "").param("size", "5"))
+                .andReturn().getResponse().getContentAsString();
+        for (int i = 0; i < 3; i++) {
+            body = mockMvc.perform(get("/api/books").param("after", (String) JsonPath.read(body, "$.nextCursor")).param("size", "5"))
+                    .andReturn().getResponse().getContentAsString();
+        }
+        String deepCursor = JsonPath.read(body, "$.nextCursor");
+
+        long firstSlice = statementsFor("/api/books?after=&size=5");
+        long deepSlice = statementsFor("/api/books?size=5&after=" + deepCursor);
+
+        assertEquals(firstSlice, deepSlice);
+        // seek query + author fetch, no count query
+        assertEquals(2, deepSlice);
+    }
+
+    @Test
+    void searchBooks_ShouldRejectCursorIssuedForAnotherSortOrder() throws Exception {
+        String body = mockMvc.perform(get("/api/books/search").param("title", "Catalog").param("after", "").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(5)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/books/search")
+                        .param("title", "Catalog")
+                        .param("after", (String) JsonPath.read(body, "$.nextCursor"))
+                        .param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Cursor does not match the requested sort order")));
+
+        mockMvc.perform(get("/api/books").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importBooks_ShouldImportCsvSkippingDuplicatesAndReportingInvalidRows() throws Exception {
+        String csv = """
+                title,isbn,publication_year,available_copies,total_copies,authors
+                "Imported, First",9781000000001,2001,2,2,Jane Smith <jane.smith@example.com>; New Writer <new.writer@example.com>
+                Already There,%s,2002,1,1,Jane Smith <jane.smith@example.com>
+                Imported Second,9781000000002,2003,1,1,New Writer <new.writer@example.com>
+                Same ISBN Again,9781000000002,2003,1,1,New Writer <new.writer@example.com>
+                Bad Year,9781000000003,later,1,1,New Writer <new.writer@example.com>
+                No Authors,9781000000004,2004,1,1,
+                """.formatted(String.format("978%010d", 0));
+
+        mockMvc.perform(post("/api/books/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("2 books imported")))
+                .andExpect(jsonPath("$.data.records", is(6)))
+                .andExpect(jsonPath("$.data.booksCreated", is(2)))
+                .andExpect(jsonPath("$.data.authorsCreated", is(1)))
+                .andExpect(jsonPath("$.data.duplicates", is(2)))
+                .andExpect(jsonPath("$.data.rejected", is(2)))
+                .andExpect(jsonPath("$.data.errors", contains(
+                        "line 6: publication_year is not a number: later",
+                        "line 7: A book must have at least one author")));
+
+        assertEquals(BOOK_COUNT + 2, bookRepository.count());
+        assertEquals(authors.size() + 1, authorRepository.count());
+        mockMvc.perform(get("/api/books/search").param("title", "imported first"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title", is("Imported, First")))
+                .andExpect(jsonPath("$.data[0].authors[*].name", containsInAnyOrder("Jane Smith", "New Writer")));
+    }
+
+    @Test
+    void importBooks_ShouldImportNdjson() throws Exception {
+        String ndjson = """
+                {"title":"Line One","isbn":"9781000000011","publicationYear":2011,"availableCopies":1,"totalCopies":1,"authors":[{"name":"John Doe","email":"john.doe@example.com"}]}
+                {"title":"Line Two",
+                {"title":"Line Three","isbn":"9781000000013","publicationYear":2013,"availableCopies":1,"totalCopies":1,"authors":[{"name":"John Doe","email":"john.doe@example.com"}]}
+                """;
+
+        mockMvc.perform(post("/api/books/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.booksCreated", is(2)))
+                .andExpect(jsonPath("$.data.authorsCreated", is(0)))
+                .andExpect(jsonPath("$.data.rejected", is(1)))
+                .andExpect(jsonPath("$.data.errors[0]", startsWith("line 2: Invalid JSON")));
+
+        assertTrue(bookRepository.existsByIsbn("9781000000013"));
+    }
+
+    @Test
+    void importBooks_ShouldRejectUnknownFormatsAndIncompleteHeaders() throws Exception {
+        mockMvc.perform(post("/api/books/import").contentType("text/csv").content("title,isbn\nSome Book,9781000000021\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("The catalog header has no publication_year column")));
+
+        mockMvc.perform(post("/api/books/import").contentType("application/json").content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Unsupported catalog content type: application/json")));
+    }
+
+    private Set<Integer> searchIds(Map<String, String> query, Map<String, String> paging) throws Exception {
+        return new HashSet<>(JsonPath.<List<Integer>>read(search(query, paging), "$.data[*].id"));
+    }
+
+    private String search(Map<String, String> query, Map<String, String> paging) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/books/search");
+        query.forEach((name, value) -> request.param(name, value));
+        paging.forEach((name, value) -> request.param(name, value));
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private long statementsFor(String url) throws Exception {
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.controller.book;
+
+import com.example.demo.model.author.Author;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.util.TestDataSetup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Many clients reading pages of books through a pool of two connections, once with the session
+ * held open for the whole request as open-in-view did, and once as configured: read-only service
+ * transactions that hand the connection back before the response is serialized. Asserts the
+ * configured path holds a connection for less of each request and never times out waiting for
+ * one; throughput and the concurrency it sustains (Little's law: throughput x latency) are
+ * printed. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + OpenInViewLoadBenchmarkTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=2000",
+        "rate-limiter.exempt=/**"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class OpenInViewLoadBenchmarkTest {
+    static final int POOL_SIZE = 2;
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS_PER_CLIENT = 200;
+    private static final int BOOK_COUNT = 500;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Test
+    void readOnlyTransactions_ShouldHoldConnectionsForLessOfEachRequest() throws Exception {
+        testDataSetup.cleanAll();
+        List<Author> authors = testDataSetup.createAuthors();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Book book = new Book();
+            book.setTitle("Load Book " + i);
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(2000);
+            book.setAvailableCopies(1);
+            book.setTotalCopies(1);
+            book.setAuthors(List.of(authors.get(i % authors.size())));
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+
+        OpenEntityManagerInViewFilter openInView = new OpenEntityManagerInViewFilter() {
+            @Override
+            protected EntityManagerFactory lookupEntityManagerFactory() {
+                return entityManagerFactory;
+            }
+        };
+        // Warm-up, so neither run pays for class loading and JIT.
+        run(() -> MockMvcBuilders.webAppContextSetup(webApplicationContext).build());
+
+        Result sessionPerRequest = run(() -> MockMvcBuilders.webAppContextSetup(webApplicationContext).addFilters(openInView).build());
+        Result transactionScoped = run(() -> MockMvcBuilders.webAppContextSetup(webApplicationContext).build());
+
+        System.out.printf("%d clients, pool of %d: open-in-view %s; read-only transactions %s%n",
+                CLIENTS, POOL_SIZE, sessionPerRequest, transactionScoped);
+        assertEquals(0, transactionScoped.timeouts(), "Requests timed out waiting for a connection");
+        assertTrue(transactionScoped.heldShare() < sessionPerRequest.heldShare(),
+                "Expected connections to be held for less of each request: " + transactionScoped + " vs " + sessionPerRequest);
+    }
+
+    private Result run(Supplier<MockMvc> mockMvcs) throws Exception {
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        Counter timeouts = meterRegistry.get("hikaricp.connections.timeout").counter();
+        long usageCount = usage.count();
+        double usageNanos = usage.totalTime(TimeUnit.NANOSECONDS);
+        double timeoutCount = timeouts.count();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Long>> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            MockMvc mockMvc = mockMvcs.get();
+            latencies.add(clients.submit(() -> {
+                long total = 0;
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    long requestStart = System.nanoTime();
+                    mockMvc.perform(get("/api/books").param("page", String.valueOf(i % 10)).param("size", "50"))
+                            .andExpect(status().isOk());
+                    total += System.nanoTime() - requestStart;
+                }
+                return total;
+            }));
+        }
+        long requestNanos = 0;
+        for (Future<Long> latency : latencies) {
+            requestNanos += latency.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        int requests = CLIENTS * REQUESTS_PER_CLIENT;
+        return new Result(requests, elapsed, requestNanos,
+                usage.count() - usageCount, usage.totalTime(TimeUnit.NANOSECONDS) - usageNanos,
+                (long) (timeouts.count() - timeoutCount));
+    }
+
+    private record Result(int requests, long elapsedNanos, long requestNanos, long checkouts, double heldNanos, long timeouts) {
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double meanLatencyMillis() {
+            return requestNanos / 1e6 / requests;
+        }
+
+        // Share of the time requests were in flight that they held a connection.
+        double heldShare() {
+            return heldNanos / requestNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, %.2f ms mean, %.1f in flight, connection held %.0f%% of each request, %d checkouts, %d timeouts",
+                    throughput(), meanLatencyMillis(), throughput() * meanLatencyMillis() / 1000, heldShare() * 100, checkouts, timeouts);
+        }
+    }
+}
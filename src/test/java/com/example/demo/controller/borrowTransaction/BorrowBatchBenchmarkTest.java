@@ -0,0 +1,166 @@
+package com.example.demo.controller.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.member.Status;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.request.borrowTransaction.BatchBorrowRequest;
+import com.example.demo.request.borrowTransaction.BatchReturnRequest;
+import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.service.borrowTransaction.BorrowTransactionService;
+import com.example.demo.util.TestDataSetup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares a checkout desk calling the single borrow and return endpoints once per item with one
+ * call to the batch endpoints. The borrow limit caps a member at three books, so checkouts are
+ * three items; returns are ten loans from different members. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "rate-limiter.exempt=/**")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BorrowBatchBenchmarkTest {
+    private static final int CHECKOUT_SIZE = 3;
+    private static final int RETURN_SIZE = 10;
+    private static final int WARMUP = 100;
+    private static final int MEASURED = 500;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BorrowTransactionService borrowTransactionService;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private int memberCount;
+
+    @Test
+    void checkoutAndReturn_BatchAgainstOneCallPerItem() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        testDataSetup.cleanAll();
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < RETURN_SIZE; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setIsbn(String.format("978%010d", i));
+            book.setPublicationYear(2000);
+            book.setAvailableCopies(1_000_000);
+            book.setTotalCopies(1_000_000);
+            bookIds.add(bookRepository.save(book).getId());
+        }
+
+        checkout(bookIds, WARMUP, false);
+        long singleCheckout = checkout(bookIds, MEASURED, false);
+        checkout(bookIds, WARMUP, true);
+        long batchCheckout = checkout(bookIds, MEASURED, true);
+
+        returns(bookIds, WARMUP, false);
+        long singleReturn = returns(bookIds, MEASURED, false);
+        returns(bookIds, WARMUP, true);
+        long batchReturn = returns(bookIds, MEASURED, true);
+
+        System.out.printf("%d-book checkout: single=%,d ns batch=%,d ns (%.1fx)%n",
+                CHECKOUT_SIZE, singleCheckout, batchCheckout, (double) singleCheckout / batchCheckout);
+        System.out.printf("%d-loan return: single=%,d ns batch=%,d ns (%.1fx)%n",
+                RETURN_SIZE, singleReturn, batchReturn, (double) singleReturn / batchReturn);
+        assertTrue(batchCheckout < singleCheckout, "Expected a batch checkout to beat one call per book");
+        assertTrue(batchReturn < singleReturn, "Expected a batch return to beat one call per loan");
+    }
+
+    // Mean time per checkout, each by a new member.
+    private long checkout(List<Long> bookIds, int rounds, boolean batch) throws Exception {
+        long total = 0;
+        for (int round = 0; round < rounds; round++) {
+            Member member = newMember();
+            List<Long> books = bookIds.subList(0, CHECKOUT_SIZE);
+            long start = System.nanoTime();
+            if (batch) {
+                mockMvc.perform(post("/api/transactions/borrow/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchBorrowRequest(member.getId(), books, LocalDate.now(), null))))
+                        .andExpect(status().isOk());
+            } else {
+                for (Long bookId : books) {
+                    mockMvc.perform(post("/api/transactions/borrow")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BorrowTransactionRequest(bookId, member.getId(), LocalDate.now(), null))))
+                            .andExpect(status().isCreated());
+                }
+            }
+            total += System.nanoTime() - start;
+        }
+        return total / rounds;
+    }
+
+    // Mean time to return one loan of each book, each loan held by a different member.
+    private long returns(List<Long> bookIds, int rounds, boolean batch) throws Exception {
+        long total = 0;
+        for (int round = 0; round < rounds; round++) {
+            List<Long> transactionIds = new ArrayList<>();
+            for (Long bookId : bookIds) {
+                BorrowTransactionDTO loan = borrowTransactionService.borrowBook(
+                        new BorrowTransactionRequest(bookId, newMember().getId(), LocalDate.now(), null));
+                transactionIds.add(loan.id());
+            }
+            long start = System.nanoTime();
+            if (batch) {
+                mockMvc.perform(put("/api/transactions/return/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchReturnRequest(transactionIds))))
+                        .andExpect(status().isOk());
+            } else {
+                for (Long transactionId : transactionIds) {
+                    mockMvc.perform(put("/api/transactions/{id}/return", transactionId)).andExpect(status().isOk());
+                }
+            }
+            total += System.nanoTime() - start;
+        }
+        return total / rounds;
+    }
+
+    private Member newMember() {
+        int n = memberCount++;
+        Member member = new Member();
+        member.setName("Benchmark Member " + n);
+        member.setEmail("benchmark" + n + "@example.com");
+        member.setPhone("555-" + n);
+        member.setMembershipDate(LocalDateTime.now());
+        member.setStatus(Status.ACTIVE);
+        return memberRepository.save(member);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.controller.borrowTransaction;
 
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
 import com.example.demo.model.author.Author;
 import com.example.demo.model.book.Book;
 import com.example.demo.model.borrowTransaction.BorrowTransaction;
@@ -8,6 +9,8 @@ import com.example.demo.model.member.Member;
 import com.example.demo.repository.book.BookRepository;
 import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
 import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.request.borrowTransaction.BatchBorrowRequest;
+import com.example.demo.request.borrowTransaction.BatchReturnRequest;
 import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
 import com.example.demo.util.TestDataSetup;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,13 +23,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import static com.example.demo.util.SqlStatements.assertStatementCount;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -253,6 +259,85 @@ class BorrowTransactionControllerIntegrationTest {
                 .andExpect(jsonPath("$.data[0].status", notNullValue()));
     }
 
+    @Test
+    void getTransactions_ShouldPageAndFilter() throws Exception {
+        testDataSetup.setupFullTestData();
+
+        mockMvc.perform(get("/api/transactions").param("page", "0").param("size", "2").param("sort", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)));
+
+        mockMvc.perform(get("/api/transactions").param("status", "RETURNED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].status", is("RETURNED")));
+    }
+
+    @Test
+    void exportTransactions_ShouldStreamOneJsonDocumentPerLine() throws Exception {
+        testDataSetup.setupFullTestData();
+
+        MvcResult started = mockMvc.perform(get("/api/transactions/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        for (String line : lines) {
+            BorrowTransactionDTO transaction = objectMapper.readValue(line, BorrowTransactionDTO.class);
+            assertNotNull(transaction.bookTitle());
+            assertNotNull(transaction.memberName());
+        }
+    }
+
+    @Test
+    void borrowBook_ShouldBeRateLimitedPerClientWhateverMemberItClaims() throws Exception {
+        for (int i = 19; i >= 0; i--) {
+            mockMvc.perform(post("/api/transactions/borrow")
+                            .header("X-Member-Id", "42")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().string("X-RateLimit-Remaining", String.valueOf(i)));
+        }
+
+        mockMvc.perform(post("/api/transactions/borrow")
+                        .header("X-Member-Id", "42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("X-RateLimit-Remaining", "0"))
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(post("/api/transactions/borrow")
+                        .header("X-Member-Id", "43")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void readEndpoints_ShouldRunAFixedNumberOfStatements() throws Exception {
+        testDataSetup.setupFullTestData();
+        Long transactionId = borrowTransactionRepository.findAll().get(0).getId();
+        Long memberId = borrowTransactionRepository.findById(transactionId).orElseThrow().getMember().getId();
+
+        // the page with its books and members; a first page shorter than the page size needs no count
+        assertStatementCount(1, () -> mockMvc.perform(get("/api/transactions")).andExpect(status().isOk()));
+        assertStatementCount(1, () -> mockMvc.perform(get("/api/transactions").param("status", "BORROWED"))
+                .andExpect(status().isOk()));
+        assertStatementCount(1, () -> mockMvc.perform(get("/api/transactions/{id}", transactionId))
+                .andExpect(status().isOk()));
+        // member check + the member's loans with their books
+        assertStatementCount(2, () -> mockMvc.perform(get("/api/members/{id}/borrowed-books", memberId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2))));
+    }
+
     @Test
     void getTransactions_ShouldReturnEmptyListWhenNoTransactions() throws Exception {
         mockMvc.perform(get("/api/transactions"))
@@ -405,4 +490,90 @@ class BorrowTransactionControllerIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.status", is("error")));
     }
+
+    @Test
+    void borrowBooks_ShouldReportEachItemAndApplyOnlyTheSuccessfulOnes() throws Exception {
+        Member member = testDataSetup.createSampleMember();
+        Book first = saveBook("Batch Book 1", "9781000000001", 2);
+        Book second = saveBook("Batch Book 2", "9781000000002", 2);
+        Book unavailable = saveBook("Batch Book 3", "9781000000003", 0);
+        Book third = saveBook("Batch Book 4", "9781000000004", 2);
+        Book overLimit = saveBook("Batch Book 5", "9781000000005", 2);
+
+        BatchBorrowRequest request = new BatchBorrowRequest(member.getId(),
+                List.of(first.getId(), first.getId(), second.getId(), unavailable.getId(), 999L, third.getId(), overLimit.getId()),
+                LocalDate.now(), LocalDate.now().plusDays(7));
+
+        mockMvc.perform(post("/api/transactions/borrow/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("3 of 7 books borrowed")))
+                .andExpect(jsonPath("$.data[*].status", contains("success", "error", "success", "error", "error", "success", "error")))
+                .andExpect(jsonPath("$.data[0].transaction.dueDate", is(LocalDate.now().plusDays(7).toString())))
+                .andExpect(jsonPath("$.data[1].message", containsString("already borrowed this book")))
+                .andExpect(jsonPath("$.data[3].message", is("No copies available for book: Batch Book 3")))
+                .andExpect(jsonPath("$.data[4].message", is("Book with id: 999 does not exists")))
+                .andExpect(jsonPath("$.data[6].message", containsString("maximum borrow limit of 3 books")));
+
+        assertEquals(3, borrowTransactionRepository.count());
+        assertEquals(1, bookRepository.findById(first.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(1, bookRepository.findById(second.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(1, bookRepository.findById(third.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(2, bookRepository.findById(overLimit.getId()).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void borrowBooks_ShouldReturnBadRequestWhenNoBooksGiven() throws Exception {
+        Member member = testDataSetup.createSampleMember();
+        BatchBorrowRequest request = new BatchBorrowRequest(member.getId(), List.of(), LocalDate.now(), null);
+
+        mockMvc.perform(post("/api/transactions/borrow/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnBooks_ShouldReportEachItemAndRestockReturnedBooks() throws Exception {
+        Member member = testDataSetup.createSampleMember();
+        Book first = saveBook("Batch Book 1", "9781000000001", 2);
+        Book second = saveBook("Batch Book 2", "9781000000002", 2);
+        BorrowTransaction firstLoan = testDataSetup.createSampleBorrowTransaction(first, member);
+        BorrowTransaction secondLoan = testDataSetup.createSampleBorrowTransaction(second, member);
+
+        BatchReturnRequest request = new BatchReturnRequest(List.of(firstLoan.getId(), 999L, secondLoan.getId(), firstLoan.getId()));
+
+        mockMvc.perform(put("/api/transactions/return/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("2 of 4 books returned")))
+                .andExpect(jsonPath("$.data[*].status", contains("success", "error", "success", "error")))
+                .andExpect(jsonPath("$.data[0].transaction.status", is("RETURNED")))
+                .andExpect(jsonPath("$.data[1].message", is("Transaction with id: 999 does not exists")))
+                .andExpect(jsonPath("$.data[3].message", is("Book has already been returned")));
+
+        borrowTransactionRepository.findAll()
+                .forEach(transaction -> assertEquals(Status.RETURNED, transaction.getStatus()));
+        assertEquals(2, bookRepository.findById(first.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(2, bookRepository.findById(second.getId()).orElseThrow().getAvailableCopies());
+
+        // The registry saw the returns, so the same books can be borrowed again straight away.
+        BatchBorrowRequest again = new BatchBorrowRequest(member.getId(), List.of(first.getId(), second.getId()), LocalDate.now(), null);
+        mockMvc.perform(post("/api/transactions/borrow/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(again)))
+                .andExpect(jsonPath("$.message", is("2 of 2 books borrowed")));
+    }
+
+    private Book saveBook(String title, String isbn, int availableCopies) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setPublicationYear(2023);
+        book.setAvailableCopies(availableCopies);
+        book.setTotalCopies(availableCopies + 2);
+        return bookRepository.save(book);
+    }
 }
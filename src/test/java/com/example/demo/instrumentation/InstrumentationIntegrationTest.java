@@ -0,0 +1,92 @@
+package com.example.demo.instrumentation;
+
+import com.example.demo.util.TestDataSetup;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class InstrumentationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private FilterRegistrationBean<RequestSqlMetricsFilter> requestSqlMetricsFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // MockMvc runs no servlet filters unless given them.
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(requestSqlMetricsFilter.getFilter())
+                .build();
+        testDataSetup.cleanAll();
+        testDataSetup.createBooks(testDataSetup.createAuthors());
+    }
+
+    @Test
+    void getBooks_ShouldRecordServiceTimerAndSqlPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+
+        Timer service = meterRegistry.get("service.calls")
+                .tag("class", "BookService").tag("method", "getBooks").tag("outcome", "success")
+                .timer();
+        assertEquals(1, service.count());
+
+        DistributionSummary statements = meterRegistry.get("request.sql.statements")
+                .tag("method", "GET").tag("uri", "/api/books")
+                .summary();
+        assertEquals(1, statements.count());
+        // page query, count query and the authors of the page
+        assertTrue(statements.totalAmount() >= 2, "Expected the page and count queries, was " + statements.totalAmount());
+        assertEquals(1, meterRegistry.get("request.sql.time").tag("uri", "/api/books").timer().count());
+    }
+
+    @Test
+    void getBook_ShouldRecordFailingServiceCallsAsErrors() throws Exception {
+        mockMvc.perform(get("/api/books/{id}", 999_999L)).andExpect(status().isNotFound());
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tag("class", "BookService").tag("method", "getBook").tag("outcome", "error")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("request.sql.statements").tag("uri", "/api/books/{id}").summary().count());
+    }
+
+    @Test
+    void getBooks_ShouldPublishConnectionPoolWaitAndOccupancy() throws Exception {
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "library").timer().count() > 0);
+        // occupancy gauges are sampled at scrape time; scheduled jobs may hold a connection at any moment
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").tag("pool", "library").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.idle").tag("pool", "library").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").tag("pool", "library").gauge());
+        assertEquals(10, meterRegistry.get("hikaricp.connections.max").tag("pool", "library").gauge().value());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.instrumentation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost the service timer adds to a call: a trivial service method called directly and through
+ * the aspect's proxy. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ServiceTimingAspectBenchmarkTest {
+    private static final int CALLS = 5_000_000;
+    private static final int ROUNDS = 5;
+
+    @Service
+    static class Arithmetic {
+        public long next(long value) {
+            return value * 31 + 7;
+        }
+    }
+
+    @Test
+    void time_ShouldAddLessThanOneMicrosecondPerCall() {
+        Arithmetic plain = new Arithmetic();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Arithmetic());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceTimingAspect(new SimpleMeterRegistry()));
+        Arithmetic timed = factory.getProxy();
+
+        long sink = 0;
+        long overhead = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink += plain.next(i);
+            }
+            long direct = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink += timed.next(i);
+            }
+            long instrumented = System.nanoTime() - start;
+            overhead = Math.min(overhead, (instrumented - direct) / CALLS);
+        }
+
+        System.out.printf("Service timer overhead: %d ns per call (%d)%n", overhead, sink);
+        assertTrue(overhead < 1_000, "Expected under 1 µs per call, was " + overhead + " ns");
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.jobs.borrowTransaction;
+
+import com.example.demo.model.book.Book;
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.outbox.OutboxMessage;
+import com.example.demo.model.reminder.ReminderCheckpoint;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.repository.outbox.OutboxMessageRepository;
+import com.example.demo.repository.reminder.ReminderCheckpointRepository;
+import com.example.demo.util.TestDataSetup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reminders.chunk-size=2")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DueDateReminderPipelineIntegrationTest {
+    private static final LocalDate DUE_DATE = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private DueDateReminderPipeline dueDateReminderPipeline;
+
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+
+    @Autowired
+    private ReminderCheckpointRepository reminderCheckpointRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    private List<BorrowTransaction> due;
+
+    @BeforeEach
+    void setUp() {
+        testDataSetup.cleanAll();
+        reminderCheckpointRepository.deleteAll();
+        outboxMessageRepository.deleteAll();
+        List<Book> books = testDataSetup.createBooks(testDataSetup.createAuthors());
+        List<Member> members = testDataSetup.createMembers();
+
+        List<BorrowTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(transaction(books.get(i % books.size()), members.get(i % members.size()), DUE_DATE, Status.BORROWED));
+        }
+        transactions.add(transaction(books.get(0), members.get(1), DUE_DATE, Status.RETURNED));
+        transactions.add(transaction(books.get(1), members.get(0), DUE_DATE.plusDays(1), Status.BORROWED));
+        due = borrowTransactionRepository.saveAll(transactions).subList(0, 5);
+    }
+
+    @Test
+    void run_ShouldQueueEveryOpenLoanDueThatDayOnce() {
+        ReminderCheckpoint checkpoint = dueDateReminderPipeline.run(DUE_DATE);
+
+        assertEquals(expectedKeys(due), queuedKeys());
+        assertEquals(5, checkpoint.getQueued());
+        assertEquals(due.get(4).getId(), checkpoint.getLastTransactionId());
+        assertNotNull(checkpoint.getCompletedAt());
+
+        dueDateReminderPipeline.run(DUE_DATE);
+
+        assertEquals(5, outboxMessageRepository.count());
+    }
+
+    @Test
+    void run_ShouldResumeAfterCheckpointedTransaction() {
+        ReminderCheckpoint interrupted = new ReminderCheckpoint(DUE_DATE);
+        interrupted.setLastTransactionId(due.get(1).getId());
+        interrupted.setQueued(2);
+        reminderCheckpointRepository.save(interrupted);
+
+        ReminderCheckpoint checkpoint = dueDateReminderPipeline.run(DUE_DATE);
+
+        assertEquals(expectedKeys(due.subList(2, 5)), queuedKeys());
+        assertEquals(5, checkpoint.getQueued());
+    }
+
+    private Set<String> queuedKeys() {
+        return outboxMessageRepository.findAll().stream().map(OutboxMessage::getDeliveryKey).collect(Collectors.toSet());
+    }
+
+    private static Set<String> expectedKeys(List<BorrowTransaction> transactions) {
+        return transactions.stream().map(transaction -> "reminder." + transaction.getId() + "." + DUE_DATE).collect(Collectors.toSet());
+    }
+
+    private static BorrowTransaction transaction(Book book, Member member, LocalDate dueDate, Status status) {
+        BorrowTransaction transaction = new BorrowTransaction();
+        transaction.setBook(book);
+        transaction.setMember(member);
+        transaction.setBorrowDate(dueDate.minusDays(14));
+        transaction.setDueDate(dueDate);
+        transaction.setStatus(status);
+        return transaction;
+    }
+}
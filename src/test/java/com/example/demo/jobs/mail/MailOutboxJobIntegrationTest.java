@@ -0,0 +1,121 @@
+package com.example.demo.jobs.mail;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.member.Member;
+import com.example.demo.model.outbox.OutboxMessage;
+import com.example.demo.model.outbox.Status;
+import com.example.demo.repository.outbox.OutboxMessageRepository;
+import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.service.borrowTransaction.BorrowTransactionService;
+import com.example.demo.service.outbox.OutboxService;
+import com.example.demo.util.TestDataSetup;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"outbox.max-attempts=2", "outbox.initial-backoff=0s"})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MailOutboxJobIntegrationTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailOutboxJob mailOutboxJob;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private BorrowTransactionService borrowTransactionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @BeforeEach
+    void setUp() {
+        testDataSetup.cleanAll();
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void dispatch_ShouldDeliverBorrowConfirmationOnceWithDeliveryKeyAsMessageId() throws Exception {
+        Book book = testDataSetup.createSampleBook();
+        Member member = testDataSetup.createSampleMember();
+        BorrowTransactionDTO borrowed = borrowTransactionService.borrowBook(
+                new BorrowTransactionRequest(book.getId(), member.getId(), LocalDate.now(), null));
+
+        mailOutboxJob.dispatch();
+        mailOutboxJob.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals(member.getEmail(), received[0].getAllRecipients()[0].toString());
+        assertEquals("<borrow." + borrowed.id() + "@library.local>", received[0].getMessageID());
+
+        OutboxMessage message = outboxMessageRepository.findAll().get(0);
+        assertEquals(Status.SENT, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getSentAt());
+    }
+
+    @Test
+    void enqueue_ShouldIgnoreRepeatedDeliveryKey() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(outboxService.enqueue("event.1", "a@example.com", "Subject", "Body"));
+            assertFalse(outboxService.enqueue("event.1", "a@example.com", "Subject", "Body"));
+        });
+
+        assertEquals(1, outboxMessageRepository.count());
+    }
+
+    @Test
+    void enqueue_ShouldRollBackWithTheBusinessTransaction() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outboxService.enqueue("event.1", "a@example.com", "Subject", "Body");
+            throw new IllegalStateException("Business rule failed");
+        }));
+
+        assertEquals(0, outboxMessageRepository.count());
+    }
+
+    @Test
+    void dispatch_ShouldRetryThenDeadLetterUndeliverableMessage() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.enqueue("event.1", "<broken@example.com", "Subject", "Body"));
+
+        mailOutboxJob.dispatchBatch();
+        OutboxMessage retried = outboxMessageRepository.findAll().get(0);
+        assertEquals(Status.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertNotNull(retried.getLastError());
+        assertNull(retried.getClaimToken());
+
+        mailOutboxJob.dispatchBatch();
+        OutboxMessage dead = outboxMessageRepository.findAll().get(0);
+        assertEquals(Status.DEAD, dead.getStatus());
+        assertEquals(2, dead.getAttempts());
+
+        assertEquals(0, mailOutboxJob.dispatchBatch());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+}
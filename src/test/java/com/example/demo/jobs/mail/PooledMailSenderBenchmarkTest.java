@@ -0,0 +1,72 @@
+package com.example.demo.jobs.mail;
+
+import com.example.demo.config.MailPoolProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Messages per second against a local SMTP server, sending one message per connection the way
+ * {@link MailJob} does versus batches over {@link PooledMailSender}'s persistent sessions. Run
+ * with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PooledMailSenderBenchmarkTest {
+    private static final int MESSAGES = 2_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendAll_ShouldOutpaceOneConnectionPerMessage() {
+        MailProperties mailProperties = new MailProperties();
+        mailProperties.setHost("localhost");
+        mailProperties.setPort(ServerSetupTest.SMTP.getPort());
+
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(mailProperties.getHost());
+        javaMailSender.setPort(mailProperties.getPort());
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo("member" + i + "@example.com");
+            message.setSubject("Reminder: Item due tomorrow!");
+            message.setText("Message " + i);
+            javaMailSender.send(message);
+        }
+        double perMessageRate = MESSAGES / seconds(start);
+
+        PooledMailSender pooledMailSender = new PooledMailSender(mailProperties, new MailPoolProperties(4, 100, Duration.ofSeconds(30)));
+        List<OutgoingMail> mails = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            mails.add(new OutgoingMail("member" + i + "@example.com", "Reminder: Item due tomorrow!", "Message " + i, null));
+        }
+        try {
+            start = System.nanoTime();
+            List<MailResult> results = pooledMailSender.sendAll(mails);
+            double pooledRate = MESSAGES / seconds(start);
+
+            System.out.printf("per-message connection: %,.0f msg/s, pooled sessions: %,.0f msg/s%n", perMessageRate, pooledRate);
+            assertTrue(results.stream().allMatch(MailResult::delivered));
+            assertEquals(2 * MESSAGES, greenMail.getReceivedMessages().length);
+            assertTrue(pooledRate > perMessageRate, "Expected pooled sessions to send faster");
+        } finally {
+            pooledMailSender.shutdown();
+        }
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
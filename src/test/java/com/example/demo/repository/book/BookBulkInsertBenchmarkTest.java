@@ -0,0 +1,94 @@
+package com.example.demo.repository.book;
+
+import com.example.demo.model.book.Book;
+import com.example.demo.util.TestDataSetup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserts 100k books through Hibernate once with JDBC batching as configured and once with the
+ * session's batch size forced to 1, which is the one statement per row that identity ids used to
+ * cause. In-memory H2 has no network round trip to save, so the statement count is asserted and
+ * the timings are only printed. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookBulkInsertBenchmarkTest {
+    private static final int BOOK_COUNT = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Test
+    void insert100kBooks_BatchedAgainstOneStatementPerRow() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        testDataSetup.cleanAll();
+        insert(10_000, null);
+        bookRepository.deleteAllInBatch();
+
+        statistics.clear();
+        long unbatched = insert(BOOK_COUNT, 1);
+        long unbatchedStatements = statistics.getPrepareStatementCount();
+        bookRepository.deleteAllInBatch();
+        statistics.clear();
+        long batched = insert(BOOK_COUNT, null);
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(BOOK_COUNT, bookRepository.count());
+        System.out.printf("%,d book inserts: one per statement=%,d ms (%,d statements) batched=%,d ms (%,d statements)%n",
+                BOOK_COUNT, unbatched / 1_000_000, unbatchedStatements, batched / 1_000_000, batchedStatements);
+        assertTrue(batchedStatements * 10 < unbatchedStatements, "Expected batching to cut statements at least tenfold");
+    }
+
+    // Persists count books in chunked transactions, flushing and clearing each chunk as a bulk
+    // load would; batchSize overrides hibernate.jdbc.batch_size when not null.
+    private long insert(int count, Integer batchSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < count; from += CHUNK) {
+            int first = from;
+            transaction.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (int i = first; i < Math.min(first + CHUNK, count); i++) {
+                    Book book = new Book();
+                    book.setTitle("Bulk Book " + i);
+                    book.setIsbn(String.format("978%010d", i));
+                    book.setPublicationYear(2000);
+                    book.setAvailableCopies(1);
+                    book.setTotalCopies(1);
+                    entityManager.persist(book);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return System.nanoTime() - start;
+    }
+}
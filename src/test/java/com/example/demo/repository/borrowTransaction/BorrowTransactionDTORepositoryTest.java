@@ -0,0 +1,87 @@
+package com.example.demo.repository.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.specification.borrowTransaction.BorrowTransactionSpecification;
+import com.example.demo.util.TestDataSetup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BorrowTransactionDTORepositoryTest {
+
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        testDataSetup.setupFullTestData();
+    }
+
+    @Test
+    void findAllDTOs_ShouldProjectEveryColumnWithoutManagingEntities() {
+        List<BorrowTransactionDTO> transactions = new TransactionTemplate(transactionManager).execute(status -> {
+            List<BorrowTransactionDTO> page = borrowTransactionRepository.findAllDTOs(
+                    BorrowTransactionSpecification.search(null, null, null), PageRequest.of(0, 10, Sort.by("id")), LocalDate.now());
+            assertEquals(0, entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities());
+            return page;
+        });
+
+        assertEquals(4, transactions.size());
+        for (BorrowTransactionDTO transaction : transactions) {
+            assertNotNull(transaction.bookTitle());
+            assertNotNull(transaction.memberName());
+            assertNotNull(transaction.memberEmail());
+            // returned loans are never overdue, however old their due date
+            assertEquals(transaction.status() == Status.BORROWED && transaction.dueDate().isBefore(LocalDate.now()), transaction.isOverdue());
+        }
+        assertEquals(1, transactions.stream().filter(BorrowTransactionDTO::isOverdue).count());
+    }
+
+    @Test
+    void findAllDTOs_ShouldApplySpecificationAndPage() {
+        List<BorrowTransactionDTO> borrowed = borrowTransactionRepository.findAllDTOs(
+                BorrowTransactionSpecification.search(Status.BORROWED, null, null), PageRequest.of(0, 2, Sort.by("dueDate")), LocalDate.now());
+
+        assertEquals(2, borrowed.size());
+        assertTrue(borrowed.stream().allMatch(transaction -> transaction.status() == Status.BORROWED));
+        assertFalse(borrowed.get(0).dueDate().isAfter(borrowed.get(1).dueDate()));
+    }
+
+    @Test
+    void findDTOsByMemberId_ShouldReturnTheMembersLoans() {
+        Long memberId = borrowTransactionRepository.findAll().get(0).getMember().getId();
+
+        List<BorrowTransactionDTO> transactions = borrowTransactionRepository.findDTOsByMemberId(memberId, LocalDate.now());
+
+        assertEquals(2, transactions.size());
+        assertTrue(transactions.stream().allMatch(transaction -> transaction.memberId().equals(memberId)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.repository.borrowTransaction;
+
+import com.example.demo.model.borrowTransaction.BorrowTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real migrations (and Hibernate's validation of them) on a database of its own, then
+ * checks with EXPLAIN that the hot {@link BorrowTransactionRepository} queries are answered from
+ * an index rather than a scan of borrow_transactions. The SQL mirrors what Hibernate generates for
+ * each repository method. It also checks the open-loan unique key the migrations add, which
+ * the borrow path relies on across instances.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:index-usage",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BorrowTransactionIndexUsageTest {
+    private static final LocalDate DUE_DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findAllDTOs_ByMemberAndStatus_ShouldUseMemberStatusIndex() {
+        String plan = explain("SELECT bt.id, b.title, m.name FROM borrow_transactions bt " +
+                "JOIN books b ON b.id = bt.book_id JOIN members m ON m.id = bt.member_id WHERE bt.member_id = ? AND bt.status = ?", 1L, "BORROWED");
+        assertUsesIndex(plan, "idx_borrow_transactions_member_status");
+    }
+
+    @Test
+    @Transactional
+    void openLoanKey_ShouldRejectASecondOpenLoanOfTheSameBook() {
+        jdbcTemplate.update("INSERT INTO books (id, title, isbn, available_copies, total_copies) VALUES (9001, 'Open Loan Book', '9789999999001', 2, 2)");
+        jdbcTemplate.update("INSERT INTO members (id, name, email, phone, status) VALUES (9001, 'Open Loan Member', 'open.loan@example.com', '555-0100', 'ACTIVE')");
+        String insert = "INSERT INTO borrow_transactions (id, book_id, member_id, borrow_date, due_date, return_date, status, open_book_id) " +
+                "VALUES (?, 9001, 9001, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, 9001L, DUE_DATE.minusDays(14), DUE_DATE, DUE_DATE, "RETURNED", null);
+        jdbcTemplate.update(insert, 9002L, DUE_DATE.minusDays(14), DUE_DATE, null, "BORROWED", 9001L);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update(insert, 9003L, DUE_DATE.minusDays(14), DUE_DATE, null, "BORROWED", 9001L));
+        assertTrue(e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT).contains(BorrowTransaction.OPEN_LOAN_KEY));
+    }
+
+    @Test
+    void findDTOsByMemberId_ShouldUseAnIndex() {
+        // Any index led by member_id will do; H2 may well prefer the foreign key's own.
+        String plan = explain("SELECT bt.id, b.title, m.name FROM borrow_transactions bt " +
+                "JOIN books b ON b.id = bt.book_id JOIN members m ON m.id = bt.member_id WHERE bt.member_id = ? ORDER BY bt.id", 1L);
+        assertUsesIndex(plan, null);
+    }
+
+    @Test
+    void findDTOsByDueDate_ShouldUseDueDateStatusIndex() {
+        String plan = explain("SELECT bt.id, b.title, m.name FROM borrow_transactions bt " +
+                "JOIN books b ON b.id = bt.book_id JOIN members m ON m.id = bt.member_id WHERE bt.due_date = ? ORDER BY bt.id", DUE_DATE);
+        assertUsesIndex(plan, "idx_borrow_transactions_due_date_status");
+    }
+
+    @Test
+    void streamDueReminders_ShouldUseDueDateStatusIndex() {
+        String plan = explain("SELECT bt.id, m.email, b.title, bt.due_date FROM borrow_transactions bt " +
+                "JOIN members m ON m.id = bt.member_id JOIN books b ON b.id = bt.book_id " +
+                "WHERE bt.due_date = ? AND bt.status = 'BORROWED' AND bt.id > ? ORDER BY bt.id", DUE_DATE, 0L);
+        assertUsesIndex(plan, "idx_borrow_transactions_due_date_status");
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    // H2 annotates the access path of each table in the plan as /* PUBLIC.<INDEX>: <conditions> */,
+    // or /* PUBLIC.<TABLE>.tableScan */ when it has to read every row.
+    private static void assertUsesIndex(String plan, String index) {
+        String normalized = plan.toUpperCase(Locale.ROOT);
+        assertFalse(normalized.contains("BORROW_TRANSACTIONS.TABLESCAN"), () -> "borrow_transactions is scanned:\n" + plan);
+        if (index != null) {
+            assertTrue(normalized.contains("PUBLIC." + index.toUpperCase(Locale.ROOT) + ":"), () -> "expected " + index + ":\n" + plan);
+        }
+    }
+}
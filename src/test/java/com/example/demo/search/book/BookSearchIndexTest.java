@@ -0,0 +1,120 @@
+package com.example.demo.search.book;
+
+import com.example.demo.repository.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of());
+        bookSearchIndex = new BookSearchIndex(bookRepository);
+        bookSearchIndex.rebuild();
+
+        bookSearchIndex.index(1L, "The Hobbit", "9780261102217", List.of("J.R.R. Tolkien"));
+        bookSearchIndex.index(2L, "The Lord of the Rings", "9780261103252", List.of("J.R.R. Tolkien"));
+        bookSearchIndex.index(3L, "Harry Potter and the Philosopher's Stone", "9780747532743", List.of("J.K. Rowling"));
+        bookSearchIndex.index(4L, "The Hobbit: The Art of the Hobbit", "9780007440818", List.of("Wayne G. Hammond", "Christina Scull"));
+    }
+
+    @Test
+    void search_ShouldRequireAllTokensAndMatchPrefixes() {
+        assertEquals(List.of(3L), ids(bookSearchIndex.search("harry pot", null, null, 0, 10)));
+        assertEquals(List.of(2L), ids(bookSearchIndex.search("lord", null, "tolk", 0, 10)));
+        assertTrue(ids(bookSearchIndex.search("hobbit", null, "rowling", 0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankByRelevance() {
+        // "hobbit" occurs twice in book 4's short title, so it outranks book 1
+        assertEquals(List.of(4L, 1L), ids(bookSearchIndex.search("hobbit", null, null, 0, 10)));
+    }
+
+    @Test
+    void search_ShouldMatchIsbnExactly() {
+        assertEquals(List.of(3L), ids(bookSearchIndex.search(null, "9780747532743", null, 0, 10)));
+        assertTrue(ids(bookSearchIndex.search(null, "978074753", null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_ShouldPageRankedResultsAndReportTotal() {
+        Optional<BookSearchHits> firstPage = bookSearchIndex.search("the", null, null, 0, 2);
+        Optional<BookSearchHits> secondPage = bookSearchIndex.search("the", null, null, 2, 2);
+
+        assertEquals(4, firstPage.orElseThrow().total());
+        assertEquals(2, firstPage.orElseThrow().ids().size());
+        assertEquals(2, secondPage.orElseThrow().ids().size());
+        assertTrue(bookSearchIndex.search("the", null, null, 4, 2).orElseThrow().ids().isEmpty());
+    }
+
+    @Test
+    void index_ShouldReplacePreviousTermsOfUpdatedBook() {
+        bookSearchIndex.index(2L, "The Silmarillion", "9780261103252", List.of("J.R.R. Tolkien"));
+
+        assertTrue(ids(bookSearchIndex.search("lord", null, null, 0, 10)).isEmpty());
+        assertEquals(List.of(2L), ids(bookSearchIndex.search("silmarillion", null, null, 0, 10)));
+    }
+
+    @Test
+    void index_ShouldKeepPostingsSortedForOutOfOrderIds() {
+        bookSearchIndex.index(300L, "Hobbit Companion", "9780000000300", List.of());
+        bookSearchIndex.index(150L, "Hobbit Atlas", "9780000000150", List.of());
+
+        assertEquals(4, bookSearchIndex.search("hobbit", null, null, 0, 10).orElseThrow().total());
+    }
+
+    @Test
+    void remove_ShouldDropBookFromResults() {
+        bookSearchIndex.remove(1L);
+
+        assertEquals(List.of(4L), ids(bookSearchIndex.search("hobbit", null, null, 0, 10)));
+    }
+
+    @Test
+    void index_ShouldApplyChangesOfATransactionOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookSearchIndex.index(5L, "Unfinished Tales", "9780261102163", List.of("J.R.R. Tolkien"));
+            bookSearchIndex.remove(1L);
+
+            assertTrue(ids(bookSearchIndex.search("unfinished", null, null, 0, 10)).isEmpty());
+            assertEquals(List.of(4L, 1L), ids(bookSearchIndex.search("hobbit", null, null, 0, 10)));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(5L), ids(bookSearchIndex.search("unfinished", null, null, 0, 10)));
+        assertEquals(List.of(4L), ids(bookSearchIndex.search("hobbit", null, null, 0, 10)));
+    }
+
+    @Test
+    void search_ShouldDeferToDatabaseWithoutSearchableCriteria() {
+        assertTrue(bookSearchIndex.search(null, null, "  ", 0, 10).isEmpty());
+    }
+
+    private List<Long> ids(Optional<BookSearchHits> hits) {
+        return hits.orElseThrow().ids();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service.author;
 
+import com.example.demo.config.UniqueKeyFilterProperties;
 import com.example.demo.dto.author.AuthorDTO;
 import com.example.demo.exception.DuplicateEmailException;
 import com.example.demo.exception.ResourceNotFoundException;
@@ -8,24 +9,36 @@ import com.example.demo.model.book.Book;
 import com.example.demo.repository.author.AuthorRepository;
 import com.example.demo.request.author.StoreAuthorRequest;
 import com.example.demo.request.author.UpdateAuthorRequest;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +47,17 @@ class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    // Never built, so every check falls through to the repository stubs below.
+    @Spy
+    private UniqueKeyFilter authorEmailFilter = new UniqueKeyFilter("author.email", Author.class, Author::getEmail, Stream::empty, null,
+            new UniqueKeyFilterProperties(0.01, 16), new SimpleMeterRegistry());
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -82,26 +106,39 @@ class AuthorServiceTest {
     @Test
     void getAuthors_ShouldReturnAllAuthors() {
         List<Author> authors = Arrays.asList(author);
-        when(authorRepository.findAll()).thenReturn(authors);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(authorRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(authors, pageable, 1));
 
-        List<AuthorDTO> result = authorService.getAuthors();
+        List<AuthorDTO> result = authorService.getAuthors("John", null, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(authorDTO.name(), result.get(0).name());
         assertEquals(authorDTO.email(), result.get(0).email());
-        verify(authorRepository, times(1)).findAll();
+        verify(authorRepository, times(1)).findAll(any(Specification.class), eq(pageable));
     }
 
     @Test
     void getAuthors_ShouldReturnEmptyListWhenNoAuthors() {
-        when(authorRepository.findAll()).thenReturn(new ArrayList<>());
+        when(authorRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
 
-        List<AuthorDTO> result = authorService.getAuthors();
+        List<AuthorDTO> result = authorService.getAuthors(null, null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(authorRepository, times(1)).findAll();
+        verify(authorRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void exportAuthors_ShouldStreamRepositoryCursorThroughExporter() throws Exception {
+        Stream<Author> authors = Stream.of(author);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(authorRepository.streamAll()).thenReturn(authors);
+        when(ndjsonExporter.export(eq(authors), any(), eq(outputStream))).thenReturn(1L);
+
+        long exported = authorService.exportAuthors(outputStream);
+
+        assertEquals(1L, exported);
     }
 
     @Test
@@ -159,14 +196,14 @@ class AuthorServiceTest {
     void putAuthor_ShouldUpdateAuthorSuccessfully() {
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
         when(authorRepository.existsByEmail(anyString())).thenReturn(false);
-        when(authorRepository.save(any(Author.class))).thenReturn(author);
+        when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(author);
 
         AuthorDTO result = authorService.putAuthor(1L, updateAuthorRequest);
 
         assertNotNull(result);
         verify(authorRepository, times(1)).findById(1L);
         verify(authorRepository, times(1)).existsByEmail(updateAuthorRequest.email());
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
     }
 
     @Test
@@ -179,7 +216,7 @@ class AuthorServiceTest {
         );
         assertEquals("Author with id: 1 does not exists", exception.getMessage());
         verify(authorRepository, times(1)).findById(1L);
-        verify(authorRepository, never()).save(any(Author.class));
+        verify(authorRepository, never()).saveAndFlush(any(Author.class));
     }
 
     @Test
@@ -194,7 +231,7 @@ class AuthorServiceTest {
         assertEquals("Email already in use", exception.getMessage());
         verify(authorRepository, times(1)).findById(1L);
         verify(authorRepository, times(1)).existsByEmail(updateAuthorRequest.email());
-        verify(authorRepository, never()).save(any(Author.class));
+        verify(authorRepository, never()).saveAndFlush(any(Author.class));
     }
 
     @Test
@@ -206,14 +243,14 @@ class AuthorServiceTest {
             LocalDate.of(1980, 1, 1)
         );
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
-        when(authorRepository.save(any(Author.class))).thenReturn(author);
+        when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(author);
 
         AuthorDTO result = authorService.putAuthor(1L, sameEmailRequest);
 
         assertNotNull(result);
         verify(authorRepository, times(1)).findById(1L);
         verify(authorRepository, never()).existsByEmail(anyString());
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
     }
 
     @Test
@@ -255,13 +292,13 @@ class AuthorServiceTest {
             null
         );
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
-        when(authorRepository.save(any(Author.class))).thenReturn(author);
+        when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(author);
 
         AuthorDTO result = authorService.putAuthor(1L, partialRequest);
 
         assertNotNull(result);
         verify(authorRepository, times(1)).findById(1L);
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
         verify(authorRepository, never()).existsByEmail(anyString());
     }
 }
@@ -1,5 +1,7 @@
 package com.example.demo.service.book;
 
+import com.example.demo.config.UniqueKeyFilterProperties;
+import com.example.demo.dto.author.AuthorSummaryDTO;
 import com.example.demo.dto.book.BookDTO;
 import com.example.demo.exception.DuplicateEmailException;
 import com.example.demo.exception.DuplicateIsbnException;
@@ -10,17 +12,23 @@ import com.example.demo.repository.author.AuthorRepository;
 import com.example.demo.repository.book.BookRepository;
 import com.example.demo.request.book.StoreBookRequest;
 import com.example.demo.request.book.UpdateBookRequest;
+import com.example.demo.search.book.BookSearchHits;
+import com.example.demo.search.book.BookSearchIndex;
 import com.example.demo.specification.book.BookSpecification;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
@@ -28,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,6 +53,14 @@ class BookServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    // Never built, so every check falls through to the repository stubs below.
+    @Spy
+    private UniqueKeyFilter isbnFilter = new UniqueKeyFilter("book.isbn", Book.class, Book::getIsbn, Stream::empty, null,
+            new UniqueKeyFilterProperties(0.01, 16), new SimpleMeterRegistry());
+
     @InjectMocks
     private BookService bookService;
 
@@ -79,7 +96,7 @@ class BookServiceTest {
             2023,
             5,
             10,
-            Arrays.asList(author),
+            Arrays.asList(new AuthorSummaryDTO(1L, "John Doe")),
             book.getCreatedAt(),
             book.getUpdatedAt()
         );
@@ -110,6 +127,7 @@ class BookServiceTest {
         List<Book> books = Arrays.asList(book);
         Page<Book> bookPage = new PageImpl<>(books, pageable, books.size());
         when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(bookPage);
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(books);
 
         List<BookDTO> result = bookService.getBooks(null, null, null, pageable);
 
@@ -117,7 +135,9 @@ class BookServiceTest {
         assertEquals(1, result.size());
         assertEquals(bookDTO.title(), result.get(0).title());
         assertEquals(bookDTO.isbn(), result.get(0).isbn());
+        assertEquals(bookDTO.authors(), result.get(0).authors());
         verify(bookRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verify(bookRepository, times(1)).findAllWithAuthorsByIdIn(List.of(1L));
     }
 
     @Test
@@ -125,6 +145,7 @@ class BookServiceTest {
         List<Book> books = Arrays.asList(book);
         Page<Book> bookPage = new PageImpl<>(books, pageable, books.size());
         when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(bookPage);
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(books);
 
         List<BookDTO> result = bookService.getBooks("Test", "978-0123456789", "John", pageable);
 
@@ -143,6 +164,46 @@ class BookServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
         verify(bookRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verify(bookRepository, never()).findAllWithAuthorsByIdIn(any());
+    }
+
+    @Test
+    void searchBooks_ShouldAnswerFromSearchIndex() {
+        when(bookSearchIndex.search("Test", null, null, 0, 10))
+            .thenReturn(Optional.of(new BookSearchHits(List.of(1L), 1)));
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(Arrays.asList(book));
+
+        List<BookDTO> result = bookService.searchBooks("Test", null, null, pageable);
+
+        assertEquals(1, result.size());
+        assertEquals(bookDTO.title(), result.get(0).title());
+        verify(bookRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchBooks_ShouldFallBackToDatabaseWhenIndexCannotAnswer() {
+        Page<Book> bookPage = new PageImpl<>(Arrays.asList(book), pageable, 1);
+        when(bookSearchIndex.search(null, null, null, 0, 10)).thenReturn(Optional.empty());
+        when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(bookPage);
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(Arrays.asList(book));
+
+        List<BookDTO> result = bookService.searchBooks(null, null, null, pageable);
+
+        assertEquals(1, result.size());
+        verify(bookRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchBooks_ShouldUseDatabaseWhenSortIsRequested() {
+        Pageable sorted = PageRequest.of(0, 10, Sort.by("title"));
+        Page<Book> bookPage = new PageImpl<>(Arrays.asList(book), sorted, 1);
+        when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(bookPage);
+        when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(Arrays.asList(book));
+
+        List<BookDTO> result = bookService.searchBooks("Test", null, null, sorted);
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(bookSearchIndex);
     }
 
     @Test
@@ -183,6 +244,7 @@ class BookServiceTest {
         verify(bookRepository, times(1)).existsByIsbn(storeBookRequest.isbn());
         verify(authorRepository, times(1)).findAllById(storeBookRequest.authorIds());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookSearchIndex, times(1)).index(book);
     }
 
     @Test
@@ -203,7 +265,7 @@ class BookServiceTest {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(bookRepository.existsByIsbn(anyString())).thenReturn(false);
         when(authorRepository.findAllById(any())).thenReturn(Arrays.asList(author));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
 
         BookDTO result = bookService.putBook(1L, updateBookRequest);
 
@@ -211,7 +273,7 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).existsByIsbn(updateBookRequest.isbn());
         verify(authorRepository, times(1)).findAllById(updateBookRequest.authorIds());
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
     }
 
     @Test
@@ -224,7 +286,7 @@ class BookServiceTest {
         );
         assertEquals("Book with id: 1 does not exists", exception.getMessage());
         verify(bookRepository, times(1)).findById(1L);
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
     }
 
     @Test
@@ -239,7 +301,7 @@ class BookServiceTest {
         assertEquals("ISBN already taken", exception.getMessage());
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).existsByIsbn(updateBookRequest.isbn());
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
     }
 
     @Test
@@ -254,14 +316,14 @@ class BookServiceTest {
         );
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(authorRepository.findAllById(any())).thenReturn(Arrays.asList(author));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
 
         BookDTO result = bookService.putBook(1L, sameIsbnRequest);
 
         assertNotNull(result);
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, never()).existsByIsbn(anyString());
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
     }
 
     @Test
@@ -275,13 +337,13 @@ class BookServiceTest {
             null
         );
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
 
         BookDTO result = bookService.putBook(1L, partialRequest);
 
         assertNotNull(result);
         verify(bookRepository, times(1)).findById(1L);
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
         verify(bookRepository, never()).existsByIsbn(anyString());
         verify(authorRepository, never()).findAllById(any());
     }
@@ -295,6 +357,7 @@ class BookServiceTest {
 
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).deleteById(1L);
+        verify(bookSearchIndex, times(1)).remove(1L);
         assertTrue(book.getAuthors().isEmpty());
         assertFalse(author.getBooks().contains(book));
     }
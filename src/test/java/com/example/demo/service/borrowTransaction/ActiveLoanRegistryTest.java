@@ -0,0 +1,116 @@
+package com.example.demo.service.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.ActiveLoanDTO;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveLoanRegistryTest {
+
+    @Mock
+    private BorrowTransactionRepository borrowTransactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActiveLoanRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ActiveLoanRegistry(borrowTransactionRepository, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rebuild_ShouldLoadActiveLoansFromDatabase() {
+        when(borrowTransactionRepository.streamActiveLoans()).thenReturn(Stream.of(
+                new ActiveLoanDTO(1L, 10L), new ActiveLoanDTO(1L, 11L), new ActiveLoanDTO(2L, 10L)));
+
+        registry.rebuild();
+
+        assertEquals(2, registry.activeLoans(1L));
+        assertTrue(registry.holds(1L, 11L));
+        assertEquals(1, registry.activeLoans(2L));
+        assertEquals(0, registry.activeLoans(3L));
+    }
+
+    @Test
+    void reserve_ShouldRejectDuplicateAndLimit() {
+        assertEquals(ActiveLoanRegistry.Reservation.RESERVED, registry.reserve(1L, 10L, 2));
+        assertEquals(ActiveLoanRegistry.Reservation.ALREADY_BORROWED, registry.reserve(1L, 10L, 2));
+        assertEquals(ActiveLoanRegistry.Reservation.RESERVED, registry.reserve(1L, 11L, 2));
+        assertEquals(ActiveLoanRegistry.Reservation.LIMIT_REACHED, registry.reserve(1L, 12L, 2));
+        assertEquals(ActiveLoanRegistry.Reservation.RESERVED, registry.reserve(2L, 12L, 2));
+    }
+
+    @Test
+    void reserve_ShouldBeUndoneWhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertEquals(ActiveLoanRegistry.Reservation.RESERVED, registry.reserve(1L, 10L, 3));
+        assertTrue(registry.holds(1L, 10L));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(registry.holds(1L, 10L));
+    }
+
+    @Test
+    void release_ShouldOnlyTakeEffectOnCommit() {
+        registry.reserve(1L, 10L, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.release(1L, 10L);
+        assertTrue(registry.holds(1L, 10L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(registry.holds(1L, 10L));
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftButLeaveBorrowsInFlightAlone() {
+        when(borrowTransactionRepository.streamActiveLoans()).thenReturn(Stream.of(new ActiveLoanDTO(1L, 10L)));
+        registry.rebuild();
+        // Member 1 returned book 10 behind the service's back; member 2's borrow has not committed yet.
+        when(borrowTransactionRepository.streamActiveLoans()).thenReturn(Stream.of(new ActiveLoanDTO(3L, 30L)));
+        TransactionSynchronizationManager.initSynchronization();
+        registry.reserve(2L, 20L, 3);
+
+        assertEquals(2, registry.reconcile());
+
+        assertEquals(0, registry.activeLoans(1L));
+        assertTrue(registry.holds(2L, 20L));
+        assertTrue(registry.holds(3L, 30L));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.service.borrowTransaction;
+
+import com.example.demo.dto.borrowTransaction.BorrowTransactionDTO;
+import com.example.demo.exception.BookNotAvailableException;
+import com.example.demo.exception.BorrowLimitExceededException;
+import com.example.demo.exception.DuplicateBorrowException;
+import com.example.demo.model.book.Book;
+import com.example.demo.model.borrowTransaction.Status;
+import com.example.demo.model.member.Member;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.util.TestDataSetup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BorrowTransactionConcurrencyIntegrationTest {
+    private static final int BORROWERS = 64;
+    private static final int COPIES = 10;
+
+    @Autowired
+    private BorrowTransactionService borrowTransactionService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BorrowTransactionRepository borrowTransactionRepository;
+
+    @Autowired
+    private ActiveLoanRegistry activeLoanRegistry;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    private Book book;
+    private List<Member> members;
+
+    @BeforeEach
+    void setUp() {
+        testDataSetup.cleanAll();
+
+        book = new Book();
+        book.setTitle("Hot Title");
+        book.setIsbn("9780000000001");
+        book.setPublicationYear(2024);
+        book.setAvailableCopies(COPIES);
+        book.setTotalCopies(COPIES);
+        book = bookRepository.save(book);
+
+        members = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            Member member = new Member();
+            member.setName("Borrower " + i);
+            member.setEmail("borrower" + i + "@example.com");
+            member.setPhone("555-" + i);
+            member.setMembershipDate(LocalDateTime.now());
+            member.setStatus(com.example.demo.model.member.Status.ACTIVE);
+            members.add(member);
+        }
+        members = memberRepository.saveAll(members);
+    }
+
+    @Test
+    void borrowBook_ShouldNeverOversellUnderConcurrentBorrowers() throws Exception {
+        AtomicInteger borrowed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(BORROWERS, i -> {
+            try {
+                borrowTransactionService.borrowBook(new BorrowTransactionRequest(
+                        book.getId(), members.get(i).getId(), LocalDate.now(), LocalDate.now().plusDays(14)));
+                borrowed.incrementAndGet();
+            } catch (BookNotAvailableException e) {
+                rejected.incrementAndGet();
+            } catch (Throwable e) {
+                unexpected.add(e);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(COPIES, borrowed.get());
+        assertEquals(BORROWERS - COPIES, rejected.get());
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(COPIES, borrowTransactionRepository.count());
+    }
+
+    @Test
+    void returnBook_ShouldApplyEachReturnExactlyOnceUnderConcurrentReturns() throws Exception {
+        List<Long> transactionIds = new ArrayList<>();
+        for (int i = 0; i < COPIES; i++) {
+            BorrowTransactionDTO transaction = borrowTransactionService.borrowBook(new BorrowTransactionRequest(
+                    book.getId(), members.get(i).getId(), LocalDate.now(), LocalDate.now().plusDays(14)));
+            transactionIds.add(transaction.id());
+        }
+        assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+
+        AtomicInteger returned = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        // Every transaction is returned by several threads at once; only one of them may win.
+        runConcurrently(BORROWERS, i -> {
+            try {
+                borrowTransactionService.returnBook(transactionIds.get(i % COPIES));
+                returned.incrementAndGet();
+            } catch (IllegalStateException e) {
+                // lost the race to another returner of the same transaction
+            } catch (Throwable e) {
+                unexpected.add(e);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(COPIES, returned.get());
+        assertEquals(COPIES, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        borrowTransactionRepository.findAll()
+                .forEach(transaction -> assertEquals(Status.RETURNED, transaction.getStatus()));
+    }
+
+    // The registry only knows the loans of its own instance; dropping them from it stands in for
+    // loans another instance took, which only the database can refuse.
+    @Test
+    void borrowBook_ShouldHoldTheBorrowLimitForLoansTakenElsewhere() {
+        Member member = members.get(0);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Book other = new Book();
+            other.setTitle("Other Title " + i);
+            other.setIsbn("978000000010" + i);
+            other.setPublicationYear(2024);
+            other.setAvailableCopies(1);
+            other.setTotalCopies(1);
+            books.add(bookRepository.save(other));
+        }
+        for (Book borrowedBook : books.subList(0, 3)) {
+            borrowTransactionService.borrowBook(new BorrowTransactionRequest(borrowedBook.getId(), member.getId(), LocalDate.now(), null));
+            activeLoanRegistry.release(member.getId(), borrowedBook.getId());
+        }
+
+        assertThrows(BorrowLimitExceededException.class, () -> borrowTransactionService.borrowBook(
+                new BorrowTransactionRequest(books.get(3).getId(), member.getId(), LocalDate.now(), null)));
+        assertEquals(1, bookRepository.findById(books.get(3).getId()).orElseThrow().getAvailableCopies());
+        assertEquals(3, memberRepository.findById(member.getId()).orElseThrow().getActiveLoans());
+        assertEquals(3, borrowTransactionRepository.count());
+    }
+
+    @Test
+    void borrowBook_ShouldRejectADuplicateOfALoanTakenElsewhere() {
+        Member member = members.get(0);
+        BorrowTransactionRequest request = new BorrowTransactionRequest(book.getId(), member.getId(), LocalDate.now(), null);
+        borrowTransactionService.borrowBook(request);
+        activeLoanRegistry.release(member.getId(), book.getId());
+
+        assertThrows(DuplicateBorrowException.class, () -> borrowTransactionService.borrowBook(request));
+        assertEquals(COPIES - 1, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+        assertEquals(1, memberRepository.findById(member.getId()).orElseThrow().getActiveLoans());
+        assertEquals(1, borrowTransactionRepository.count());
+    }
+
+    private void runConcurrently(int threads, IntConsumer task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    ready.countDown();
+                    try {
+                        start.await();
+                        task.accept(index);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            ready.await();
+            start.countDown();
+            assertTrue(done.await(60, TimeUnit.SECONDS), "Concurrent borrowers did not finish in time");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
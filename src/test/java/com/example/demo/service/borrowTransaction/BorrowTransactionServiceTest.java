@@ -10,22 +10,32 @@ import com.example.demo.repository.book.BookRepository;
 import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
 import com.example.demo.repository.member.MemberRepository;
 import com.example.demo.request.borrowTransaction.BorrowTransactionRequest;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.service.outbox.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -41,6 +51,18 @@ class BorrowTransactionServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActiveLoanRegistry activeLoanRegistry;
+
     @InjectMocks
     private BorrowTransactionService borrowTransactionService;
 
@@ -83,10 +105,10 @@ class BorrowTransactionServiceTest {
     void borrowBook_ShouldCreateBorrowTransactionSuccessfully() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(borrowTransactionRepository.countByMemberIdAndStatus(1L, Status.BORROWED)).thenReturn(0L);
-        when(borrowTransactionRepository.findByMemberIdAndBookIdAndStatus(1L, 1L, Status.BORROWED))
-            .thenReturn(Optional.empty());
-        when(borrowTransactionRepository.save(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(1);
+        when(borrowTransactionRepository.saveAndFlush(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
 
         BorrowTransactionDTO result = borrowTransactionService.borrowBook(borrowTransactionRequest);
 
@@ -95,8 +117,26 @@ class BorrowTransactionServiceTest {
         assertEquals(book.getId(), result.bookId());
         assertEquals(member.getId(), result.memberId());
         assertEquals(Status.BORROWED, result.status());
-        verify(bookRepository, times(1)).save(book);
-        assertEquals(4, book.getAvailableCopies());
+        verify(bookRepository, times(1)).decrementAvailableCopies(1L);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(outboxService).enqueue(eq("borrow.1"), eq("john@example.com"), anyString(), anyString());
+        verify(eventPublisher).publishEvent(new LoanBorrowedEvent(1L, borrowTransaction.getDueDate()));
+    }
+
+    @Test
+    void borrowBook_ShouldThrowBookNotAvailableExceptionWhenLastCopyTakenConcurrently() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(0);
+
+        BookNotAvailableException exception = assertThrows(
+            BookNotAvailableException.class,
+            () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
+        );
+        assertEquals("No copies available for book: Test Book", exception.getMessage());
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
@@ -109,7 +149,7 @@ class BorrowTransactionServiceTest {
         );
         assertEquals("Book with id: 1 does not exists", exception.getMessage());
         verify(memberRepository, never()).findById(anyLong());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
@@ -122,7 +162,7 @@ class BorrowTransactionServiceTest {
             () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
         );
         assertEquals("Member with id: 1 does not exists", exception.getMessage());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
@@ -136,7 +176,7 @@ class BorrowTransactionServiceTest {
             () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
         );
         assertEquals("Member is not active", exception.getMessage());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
@@ -150,37 +190,69 @@ class BorrowTransactionServiceTest {
             () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
         );
         assertEquals("No copies available for book: Test Book", exception.getMessage());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
     void borrowBook_ShouldThrowBorrowLimitExceededException() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(borrowTransactionRepository.countByMemberIdAndStatus(1L, Status.BORROWED)).thenReturn(3L);
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.LIMIT_REACHED);
 
         BorrowLimitExceededException exception = assertThrows(
             BorrowLimitExceededException.class,
             () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
         );
         assertEquals("Member has reached maximum borrow limit of 3 books", exception.getMessage());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
+    }
+
+    @Test
+    void borrowBook_ShouldThrowBorrowLimitExceededExceptionWhenDatabaseRefusesTheSlot() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(0);
+
+        BorrowLimitExceededException exception = assertThrows(
+            BorrowLimitExceededException.class,
+            () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
+        );
+        assertEquals("Member has reached maximum borrow limit of 3 books", exception.getMessage());
+        verify(bookRepository, never()).decrementAvailableCopies(anyLong());
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
+    }
+
+    @Test
+    void borrowBook_ShouldThrowDuplicateBorrowExceptionWhenOpenLoanKeyIsViolated() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(1);
+        when(borrowTransactionRepository.saveAndFlush(any(BorrowTransaction.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_BORROW_TRANSACTIONS_MEMBER_OPEN_BOOK_INDEX_C\"")));
+
+        DuplicateBorrowException exception = assertThrows(
+            DuplicateBorrowException.class,
+            () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
+        );
+        assertEquals("Member has already borrowed this book and not returned it yet", exception.getMessage());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
     void borrowBook_ShouldThrowDuplicateBorrowException() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(borrowTransactionRepository.countByMemberIdAndStatus(1L, Status.BORROWED)).thenReturn(1L);
-        when(borrowTransactionRepository.findByMemberIdAndBookIdAndStatus(1L, 1L, Status.BORROWED))
-            .thenReturn(Optional.of(borrowTransaction));
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.ALREADY_BORROWED);
 
         DuplicateBorrowException exception = assertThrows(
             DuplicateBorrowException.class,
             () -> borrowTransactionService.borrowBook(borrowTransactionRequest)
         );
         assertEquals("Member has already borrowed this book and not returned it yet", exception.getMessage());
-        verify(borrowTransactionRepository, never()).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, never()).saveAndFlush(any(BorrowTransaction.class));
     }
 
     @Test
@@ -190,10 +262,10 @@ class BorrowTransactionServiceTest {
         );
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(borrowTransactionRepository.countByMemberIdAndStatus(1L, Status.BORROWED)).thenReturn(0L);
-        when(borrowTransactionRepository.findByMemberIdAndBookIdAndStatus(1L, 1L, Status.BORROWED))
-            .thenReturn(Optional.empty());
-        when(borrowTransactionRepository.save(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(1);
+        when(borrowTransactionRepository.saveAndFlush(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
 
         BorrowTransactionDTO result = borrowTransactionService.borrowBook(requestWithoutDueDate);
 
@@ -204,15 +276,35 @@ class BorrowTransactionServiceTest {
     @Test
     void returnBook_ShouldReturnBookSuccessfully() {
         when(borrowTransactionRepository.findById(1L)).thenReturn(Optional.of(borrowTransaction));
-        when(borrowTransactionRepository.save(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
+        when(borrowTransactionRepository.markReturned(1L, LocalDate.now())).thenReturn(1);
 
         BorrowTransactionDTO result = borrowTransactionService.returnBook(1L);
 
         assertNotNull(result);
-        assertEquals(Status.RETURNED, borrowTransaction.getStatus());
-        assertEquals(LocalDate.now(), borrowTransaction.getReturnDate());
-        assertEquals(6, book.getAvailableCopies());
-        verify(bookRepository, times(1)).save(book);
+        assertEquals(Status.RETURNED, result.status());
+        assertEquals(LocalDate.now(), result.returnDate());
+        verify(memberRepository).removeActiveLoans(1L, 1);
+        verify(bookRepository, times(1)).incrementAvailableCopies(1L);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(outboxService).enqueue(eq("return.1"), eq("john@example.com"), anyString(), anyString());
+        verify(eventPublisher).publishEvent(new LoanReturnedEvent(1L));
+        verify(activeLoanRegistry).release(1L, 1L);
+    }
+
+    @Test
+    void returnBook_ShouldThrowIllegalStateExceptionWhenReturnedConcurrently() {
+        when(borrowTransactionRepository.findById(1L)).thenReturn(Optional.of(borrowTransaction));
+        when(borrowTransactionRepository.markReturned(1L, LocalDate.now())).thenReturn(0);
+
+        IllegalStateException exception = assertThrows(
+            IllegalStateException.class,
+            () -> borrowTransactionService.returnBook(1L)
+        );
+        assertEquals("Book has already been returned", exception.getMessage());
+        verify(bookRepository, never()).incrementAvailableCopies(anyLong());
+        verify(memberRepository, never()).removeActiveLoans(anyLong(), anyInt());
+        verifyNoInteractions(outboxService);
+        verify(activeLoanRegistry, never()).release(anyLong(), anyLong());
     }
 
     @Test
@@ -242,26 +334,39 @@ class BorrowTransactionServiceTest {
 
     @Test
     void getTransactions_ShouldReturnAllTransactions() {
-        List<BorrowTransaction> transactions = Arrays.asList(borrowTransaction);
-        when(borrowTransactionRepository.findAll()).thenReturn(transactions);
+        BorrowTransactionDTO transactionDTO = borrowTransactionService.convertToDTO(borrowTransaction);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(borrowTransactionRepository.findAllDTOs(any(Specification.class), any(Pageable.class), any(LocalDate.class))).thenReturn(List.of(transactionDTO));
 
-        List<BorrowTransactionDTO> result = borrowTransactionService.getTransactions();
+        List<BorrowTransactionDTO> result = borrowTransactionService.getTransactions(Status.BORROWED, 1L, null, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(borrowTransaction.getId(), result.get(0).id());
-        verify(borrowTransactionRepository, times(1)).findAll();
+        verify(borrowTransactionRepository, times(1)).findAllDTOs(any(Specification.class), eq(pageable), any(LocalDate.class));
     }
 
     @Test
     void getTransactions_ShouldReturnEmptyListWhenNoTransactions() {
-        when(borrowTransactionRepository.findAll()).thenReturn(new ArrayList<>());
+        when(borrowTransactionRepository.findAllDTOs(any(Specification.class), any(Pageable.class), any(LocalDate.class))).thenReturn(new ArrayList<>());
 
-        List<BorrowTransactionDTO> result = borrowTransactionService.getTransactions();
+        List<BorrowTransactionDTO> result = borrowTransactionService.getTransactions(null, null, null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(borrowTransactionRepository, times(1)).findAll();
+        verify(borrowTransactionRepository, times(1)).findAllDTOs(any(Specification.class), any(Pageable.class), any(LocalDate.class));
+    }
+
+    @Test
+    void exportTransactions_ShouldStreamRepositoryCursorThroughExporter() throws Exception {
+        Stream<BorrowTransaction> transactions = Stream.of(borrowTransaction);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(borrowTransactionRepository.streamAll()).thenReturn(transactions);
+        when(ndjsonExporter.export(eq(transactions), any(), eq(outputStream))).thenReturn(1L);
+
+        long exported = borrowTransactionService.exportTransactions(outputStream);
+
+        assertEquals(1L, exported);
     }
 
     @Test
@@ -290,7 +395,8 @@ class BorrowTransactionServiceTest {
     @Test
     void getMemberBorrowTransactions_ShouldReturnMemberTransactions() {
         when(memberRepository.existsById(1L)).thenReturn(true);
-        when(borrowTransactionRepository.findByMemberId(1L)).thenReturn(Arrays.asList(borrowTransaction));
+        when(borrowTransactionRepository.findDTOsByMemberId(eq(1L), any(LocalDate.class)))
+                .thenReturn(List.of(borrowTransactionService.convertToDTO(borrowTransaction)));
 
         List<BorrowTransactionDTO> result = borrowTransactionService.getMemberBorrowTransactions(1L);
 
@@ -298,7 +404,7 @@ class BorrowTransactionServiceTest {
         assertEquals(1, result.size());
         assertEquals(borrowTransaction.getId(), result.get(0).id());
         verify(memberRepository, times(1)).existsById(1L);
-        verify(borrowTransactionRepository, times(1)).findByMemberId(1L);
+        verify(borrowTransactionRepository, times(1)).findDTOsByMemberId(eq(1L), any(LocalDate.class));
     }
 
     @Test
@@ -311,20 +417,20 @@ class BorrowTransactionServiceTest {
         );
         assertEquals("Member with id: 1 does not exist", exception.getMessage());
         verify(memberRepository, times(1)).existsById(1L);
-        verify(borrowTransactionRepository, never()).findByMemberId(anyLong());
+        verify(borrowTransactionRepository, never()).findDTOsByMemberId(anyLong(), any(LocalDate.class));
     }
 
     @Test
     void getMemberBorrowTransactions_ShouldReturnEmptyListWhenMemberHasNoTransactions() {
         when(memberRepository.existsById(1L)).thenReturn(true);
-        when(borrowTransactionRepository.findByMemberId(1L)).thenReturn(new ArrayList<>());
+        when(borrowTransactionRepository.findDTOsByMemberId(eq(1L), any(LocalDate.class))).thenReturn(new ArrayList<>());
 
         List<BorrowTransactionDTO> result = borrowTransactionService.getMemberBorrowTransactions(1L);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
         verify(memberRepository, times(1)).existsById(1L);
-        verify(borrowTransactionRepository, times(1)).findByMemberId(1L);
+        verify(borrowTransactionRepository, times(1)).findDTOsByMemberId(eq(1L), any(LocalDate.class));
     }
 
     @Test
@@ -368,15 +474,16 @@ class BorrowTransactionServiceTest {
     void borrowBook_ShouldAllowBorrowingAtBorrowLimit() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(borrowTransactionRepository.countByMemberIdAndStatus(1L, Status.BORROWED)).thenReturn(2L);
-        when(borrowTransactionRepository.findByMemberIdAndBookIdAndStatus(1L, 1L, Status.BORROWED))
-            .thenReturn(Optional.empty());
-        when(borrowTransactionRepository.save(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
+        // the registry holds two of the member's three loans and admits the third
+        when(activeLoanRegistry.reserve(1L, 1L, 3)).thenReturn(ActiveLoanRegistry.Reservation.RESERVED);
+        when(memberRepository.addActiveLoans(1L, 1, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCopies(1L)).thenReturn(1);
+        when(borrowTransactionRepository.saveAndFlush(any(BorrowTransaction.class))).thenReturn(borrowTransaction);
 
         BorrowTransactionDTO result = borrowTransactionService.borrowBook(borrowTransactionRequest);
 
         assertNotNull(result);
         assertEquals(Status.BORROWED, result.status());
-        verify(borrowTransactionRepository, times(1)).save(any(BorrowTransaction.class));
+        verify(borrowTransactionRepository, times(1)).saveAndFlush(any(BorrowTransaction.class));
     }
 }
@@ -0,0 +1,87 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.dto.book.CatalogImportReportDTO;
+import com.example.demo.search.book.BookSearchIndex;
+import com.example.demo.util.TestDataSetup;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports a generated CSV catalog of one million books by a thousand authors and reports the
+ * throughput and the heap still in use afterwards. The catalog is produced row by row, so neither
+ * side holds the file. The search index is mocked out: it keeps every book by design and would
+ * dominate the memory figure. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogImportBenchmarkTest {
+    private static final int BOOK_COUNT = 1_000_000;
+    private static final int AUTHOR_COUNT = 1_000;
+    private static final long MAX_RETAINED_BYTES = 256L * 1024 * 1024;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @MockBean
+    private BookSearchIndex bookSearchIndex;
+
+    @Test
+    void importCatalog_MillionBooksInConstantMemory() throws Exception {
+        testDataSetup.cleanAll();
+        long heapBefore = usedHeapAfterGc();
+
+        CatalogImportReportDTO report = catalogImportService.importCatalog(catalog(BOOK_COUNT), CatalogFormat.CSV);
+
+        long retained = usedHeapAfterGc() - heapBefore;
+        System.out.printf("Imported %,d books in %,d ms (%,d books/s); heap retained %,d MB%n",
+                report.booksCreated(), report.elapsedMillis(), report.booksCreated() * 1000 / Math.max(1, report.elapsedMillis()),
+                retained / (1024 * 1024));
+        assertEquals(BOOK_COUNT, report.booksCreated());
+        assertEquals(AUTHOR_COUNT, report.authorsCreated());
+        assertEquals(0, report.rejected());
+        assertTrue(retained < MAX_RETAINED_BYTES, "Expected the import to leave less than 256 MB on the heap");
+    }
+
+    private static InputStream catalog(int books) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int row;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row <= books;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line = row == 0
+                        ? "title,isbn,publication_year,available_copies,total_copies,authors\n"
+                        : String.format("Bulk Book %d,979%010d,%d,1,1,Author %d <author%d@example.com>%n",
+                        row, row, 1900 + row % 120, row % AUTHOR_COUNT, row % AUTHOR_COUNT);
+                row++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.exception.InvalidCatalogException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvCatalogReaderTest {
+
+    @Test
+    void next_ShouldParseQuotedFieldsAndAuthorsInAnyColumnOrder() throws IOException {
+        CsvCatalogReader reader = new CsvCatalogReader(new StringReader(
+                "ISBN,title,authors,publication_year,available_copies,total_copies,shelf\r\n" +
+                "9780000000001,\"Hello, \"\"World\"\"\",Jane Doe <jane@example.com>; John Roe <john@example.com>,1999,1,2,B4\r\n"));
+
+        CatalogRecord record = reader.next();
+
+        assertEquals(2, record.line());
+        assertEquals("Hello, \"World\"", record.title());
+        assertEquals("9780000000001", record.isbn());
+        assertEquals(1999, record.publicationYear());
+        assertEquals(1, record.availableCopies());
+        assertEquals(2, record.totalCopies());
+        assertEquals(List.of(new CatalogRecord.AuthorEntry("Jane Doe", "jane@example.com"),
+                new CatalogRecord.AuthorEntry("John Roe", "john@example.com")), record.authors());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldReportMalformedRowsWithTheirLineAndCarryOn() throws IOException {
+        CsvCatalogReader reader = new CsvCatalogReader(new StringReader("""
+                title,isbn,publication_year,available_copies,total_copies,authors
+                "Spans
+                two lines",9780000000002,soon,1,1,Jane <jane@example.com>
+
+                Fine,9780000000003,2000,,1,Jane Doe
+                Last,9780000000004,2001,1,1,Jane <jane@example.com>
+                """));
+
+        MalformedRecordException badYear = assertThrows(MalformedRecordException.class, reader::next);
+        assertEquals(2, badYear.line());
+        assertEquals("publication_year is not a number: soon", badYear.getMessage());
+        MalformedRecordException badAuthor = assertThrows(MalformedRecordException.class, reader::next);
+        assertEquals(5, badAuthor.line());
+
+        CatalogRecord last = reader.next();
+        assertEquals(6, last.line());
+        assertEquals("Last", last.title());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void constructor_ShouldRejectHeaderWithoutRequiredColumns() {
+        InvalidCatalogException exception = assertThrows(InvalidCatalogException.class,
+                () -> new CsvCatalogReader(new StringReader("title,isbn,authors\n")));
+        assertEquals("The catalog header has no publication_year column", exception.getMessage());
+    }
+}
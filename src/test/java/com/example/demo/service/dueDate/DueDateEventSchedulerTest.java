@@ -0,0 +1,180 @@
+package com.example.demo.service.dueDate;
+
+import com.example.demo.config.DueDateEventProperties;
+import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DueDateEventSchedulerTest {
+    private static final LocalDate DUE_DATE = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private BorrowTransactionRepository borrowTransactionRepository;
+
+    @Mock
+    private DueDateNotifier dueDateNotifier;
+
+    private MutableClock clock;
+    private DueDateEventScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Three days before the end of the due date.
+        clock = new MutableClock(DUE_DATE.minusDays(2).atStartOfDay(ZoneOffset.UTC).toInstant());
+        DueDateEventProperties properties = new DueDateEventProperties(true, List.of(Duration.ofHours(48), Duration.ofHours(2)),
+                Duration.ofSeconds(1), Duration.ofDays(1), Duration.ofSeconds(10), Duration.ofMinutes(10));
+        scheduler = new DueDateEventScheduler(properties, borrowTransactionRepository, dueDateNotifier, new SimpleMeterRegistry(), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void tick_ShouldNotifyEachEventAtItsTime() {
+        scheduler.schedule(1L, DUE_DATE);
+        assertEquals(4, scheduler.scheduledCount());
+
+        advanceTo(DUE_DATE.atStartOfDay().minusDays(1));
+        verify(dueDateNotifier).notify(new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.DUE_SOON, Duration.ofHours(48)));
+
+        advanceTo(DUE_DATE.atStartOfDay());
+        verify(dueDateNotifier).notify(new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.DUE_NOW, null));
+
+        advanceTo(DUE_DATE.atStartOfDay().plusHours(22));
+        verify(dueDateNotifier).notify(new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.DUE_SOON, Duration.ofHours(2)));
+
+        advanceTo(DUE_DATE.plusDays(1).atStartOfDay());
+        verify(dueDateNotifier).notify(new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.OVERDUE, null));
+        verifyNoMoreInteractions(dueDateNotifier);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    void cancel_ShouldDropEveryTimerForTheLoan() {
+        scheduler.schedule(1L, DUE_DATE);
+        scheduler.schedule(2L, DUE_DATE);
+
+        scheduler.cancel(1L);
+        assertEquals(4, scheduler.scheduledCount());
+
+        advanceTo(DUE_DATE.plusDays(1).atStartOfDay());
+        ArgumentCaptor<DueDateEvent> events = ArgumentCaptor.forClass(DueDateEvent.class);
+        verify(dueDateNotifier, times(4)).notify(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.transactionId() == 2L));
+    }
+
+    @Test
+    void schedule_ShouldFireMissedEventsWithinCatchUpOnNextTick() {
+        clock.set(DUE_DATE.atStartOfDay().plusHours(12).toInstant(ZoneOffset.UTC));
+
+        scheduler.schedule(1L, DUE_DATE);
+        scheduler.tick();
+
+        // The 48h reminder is more than a day late and is skipped; the due-today notice is not.
+        verify(dueDateNotifier).notify(new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.DUE_NOW, null));
+        verifyNoMoreInteractions(dueDateNotifier);
+        assertEquals(2, scheduler.scheduledCount());
+    }
+
+    @Test
+    void tick_ShouldKeepGoingWhenNotifierFails() {
+        scheduler.schedule(1L, DUE_DATE);
+        scheduler.schedule(2L, DUE_DATE);
+        when(dueDateNotifier.notify(any())).thenThrow(new IllegalStateException("database down")).thenReturn(true);
+
+        advanceTo(DUE_DATE.atStartOfDay().minusDays(1));
+
+        verify(dueDateNotifier, times(2)).notify(any());
+    }
+
+    @Test
+    void tick_ShouldRetryFailedNotificationWithBackoff() {
+        DueDateEvent dueSoon = new DueDateEvent(1L, DUE_DATE, DueDateEvent.Type.DUE_SOON, Duration.ofHours(48));
+        scheduler.schedule(1L, DUE_DATE);
+        when(dueDateNotifier.notify(dueSoon))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(true);
+        LocalDateTime firedAt = DUE_DATE.atStartOfDay().minusDays(1);
+
+        advanceTo(firedAt);
+        assertEquals(4, scheduler.scheduledCount());
+
+        advanceTo(firedAt.plusSeconds(9));
+        verify(dueDateNotifier, times(1)).notify(dueSoon);
+        advanceTo(firedAt.plusSeconds(10));
+        verify(dueDateNotifier, times(2)).notify(dueSoon);
+        // the second retry waits twice as long
+        advanceTo(firedAt.plusSeconds(29));
+        verify(dueDateNotifier, times(2)).notify(dueSoon);
+        advanceTo(firedAt.plusSeconds(30));
+        verify(dueDateNotifier, times(3)).notify(dueSoon);
+        assertEquals(3, scheduler.scheduledCount());
+    }
+
+    @Test
+    void cancel_ShouldDropPendingRetries() {
+        scheduler.schedule(1L, DUE_DATE);
+        when(dueDateNotifier.notify(any())).thenThrow(new IllegalStateException("database down"));
+        advanceTo(DUE_DATE.atStartOfDay().minusDays(1));
+
+        scheduler.cancel(1L);
+
+        assertEquals(0, scheduler.scheduledCount());
+        advanceTo(DUE_DATE.atStartOfDay().minusDays(1).plusMinutes(1));
+        verify(dueDateNotifier, times(1)).notify(any());
+    }
+
+    private void advanceTo(LocalDateTime time) {
+        clock.set(time.toInstant(ZoneOffset.UTC));
+        scheduler.tick();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service.dueDate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+    private static final long TICK = 1_000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advanceTo_ShouldFireEachTimeoutOnItsOwnTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 3, START);
+        // Within level 0, level 1, level 2 and past the top level into overflow.
+        long[] delays = {1, 63, 64, 65, 4_095, 4_096, 100_000, 300_000, 1_000_000};
+        for (long delay : delays) {
+            wheel.schedule(START + delay * TICK, delay);
+        }
+
+        for (long delay : delays) {
+            assertEquals(List.of(), wheel.advanceTo(START + (delay - 1) * TICK), "fired early: " + delay);
+            assertEquals(List.of(delay), wheel.advanceTo(START + delay * TICK));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_ShouldFireEverythingPassedWhenJumpingAhead() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 4, START);
+        Random random = new Random(42);
+        List<Long> delays = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long delay = 1 + random.nextInt(2_000_000);
+            delays.add(delay);
+            wheel.schedule(START + delay * TICK, delay);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        long lastFired = 0;
+        for (long now = START; now <= START + 2_000_000 * TICK; now += 7_919 * TICK) {
+            for (Long delay : wheel.advanceTo(now)) {
+                assertTrue(START + delay * TICK <= now, "fired early: " + delay);
+                assertTrue(START + delay * TICK > lastFired, "fired late: " + delay);
+                fired.add(delay);
+            }
+            lastFired = now;
+        }
+        fired.addAll(wheel.advanceTo(START + 2_000_000 * TICK));
+
+        assertEquals(delays.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_ShouldStopTimeoutFromFiring() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 3, START);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule(START + 5_000 * TICK, "cancelled");
+        wheel.schedule(START + 5_000 * TICK, "kept");
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        assertEquals(List.of("kept"), wheel.advanceTo(START + 5_000 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlineOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 3, START);
+        wheel.schedule(START - 60_000, "late");
+        wheel.schedule(START + 1, "rounded up to the next tick");
+
+        assertEquals(List.of("late"), wheel.advanceTo(START));
+        assertEquals(List.of("rounded up to the next tick"), wheel.advanceTo(START + TICK));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service.member;
 
+import com.example.demo.config.UniqueKeyFilterProperties;
 import com.example.demo.dto.member.MemberDTO;
 import com.example.demo.exception.DuplicateEmailException;
 import com.example.demo.exception.ResourceNotFoundException;
@@ -8,24 +9,38 @@ import com.example.demo.model.member.Status;
 import com.example.demo.repository.member.MemberRepository;
 import com.example.demo.request.member.StoreMemberRequest;
 import com.example.demo.request.member.UpdateMemberRequest;
+import com.example.demo.service.export.NdjsonExporter;
+import com.example.demo.uniqueKey.UniqueKeyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +49,14 @@ class MemberServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private NdjsonExporter ndjsonExporter;
+
+    // Never built, so every check falls through to the repository stubs below.
+    @Spy
+    private UniqueKeyFilter memberEmailFilter = new UniqueKeyFilter("member.email", Member.class, Member::getEmail, Stream::empty, null,
+            new UniqueKeyFilterProperties(0.01, 16), new SimpleMeterRegistry());
+
     @InjectMocks
     private MemberService memberService;
 
@@ -84,27 +107,40 @@ class MemberServiceTest {
     @Test
     void getMembers_ShouldReturnAllMembers() {
         List<Member> members = Arrays.asList(member);
-        when(memberRepository.findAll()).thenReturn(members);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(memberRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(members, pageable, 1));
 
-        List<MemberDTO> result = memberService.getMembers();
+        List<MemberDTO> result = memberService.getMembers(null, null, Status.ACTIVE, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(memberDTO.name(), result.get(0).name());
         assertEquals(memberDTO.email(), result.get(0).email());
         assertEquals(memberDTO.status(), result.get(0).status());
-        verify(memberRepository, times(1)).findAll();
+        verify(memberRepository, times(1)).findAll(any(Specification.class), eq(pageable));
     }
 
     @Test
     void getMembers_ShouldReturnEmptyListWhenNoMembers() {
-        when(memberRepository.findAll()).thenReturn(new ArrayList<>());
+        when(memberRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
 
-        List<MemberDTO> result = memberService.getMembers();
+        List<MemberDTO> result = memberService.getMembers(null, null, null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(memberRepository, times(1)).findAll();
+        verify(memberRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void exportMembers_ShouldStreamRepositoryCursorThroughExporter() throws Exception {
+        Stream<Member> members = Stream.of(member);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(memberRepository.streamAll()).thenReturn(members);
+        when(ndjsonExporter.export(eq(members), any(), eq(outputStream))).thenReturn(1L);
+
+        long exported = memberService.exportMembers(outputStream);
+
+        assertEquals(1L, exported);
     }
 
     @Test
@@ -162,6 +198,27 @@ class MemberServiceTest {
         verify(memberRepository, never()).save(any(Member.class));
     }
 
+    @Test
+    void postMember_ShouldThrowDuplicateEmailExceptionWhenSaveBreaksTheUniqueKey() {
+        // Written where the filter could not see it, e.g. by another instance.
+        when(memberRepository.existsByEmail(anyString())).thenReturn(false);
+        when(memberRepository.save(any(Member.class))).thenThrow(violation(ConstraintViolationException.ConstraintKind.UNIQUE));
+
+        DuplicateEmailException exception = assertThrows(
+            DuplicateEmailException.class,
+            () -> memberService.postMember(storeMemberRequest)
+        );
+        assertEquals("Email already in use", exception.getMessage());
+    }
+
+    @Test
+    void postMember_ShouldRethrowOtherConstraintViolations() {
+        when(memberRepository.existsByEmail(anyString())).thenReturn(false);
+        when(memberRepository.save(any(Member.class))).thenThrow(violation(ConstraintViolationException.ConstraintKind.OTHER));
+
+        assertThrows(DataIntegrityViolationException.class, () -> memberService.postMember(storeMemberRequest));
+    }
+
     @Test
     void putMember_ShouldUpdateMemberSuccessfully() {
         when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
@@ -362,4 +419,9 @@ class MemberServiceTest {
         verify(memberRepository, times(1)).findById(1L);
         verify(memberRepository, times(1)).save(any(Member.class));
     }
+
+    private static DataIntegrityViolationException violation(ConstraintViolationException.ConstraintKind kind) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), kind, null));
+    }
 }
@@ -0,0 +1,219 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.config.RateLimitProperties.KeyType;
+import com.example.demo.config.RateLimitProperties.Policy;
+import com.example.demo.model.book.Book;
+import com.example.demo.repository.book.BookRepository;
+import com.example.demo.repository.rateLimiter.RateLimitBucketRepository;
+import com.example.demo.util.TestDataSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JdbcBucketStoreIntegrationTest {
+    private static final long CAPACITY = 100;
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestDataSetup testDataSetup;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MutableClock clock;
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitBucketRepository.deleteAll();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        policy = RateLimitPolicy.of(new Policy("shared", "/**", List.of(), CAPACITY, PERIOD, KeyType.IP, null),
+                PathPatternParser.defaultInstance, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tryConsume_ShouldEnforceOneLimitAcrossInstances() {
+        JdbcBucketStore first = newStore(50);
+        JdbcBucketStore second = newStore(50);
+        BucketKey key = new BucketKey(policy, "10.0.0.1");
+
+        long allowed = drain(first, key) + drain(second, key);
+
+        assertEquals(CAPACITY, allowed);
+        assertFalse(first.tryConsume(key).allowed());
+        assertEquals(0, rateLimitBucketRepository.findStateById(JdbcBucketStore.rowId(key)).orElseThrow().tokens());
+    }
+
+    @Test
+    void tryConsume_ShouldLeaseTokensSoMostRequestsSkipTheDatabase() {
+        JdbcBucketStore store = newStore(50);
+        BucketKey key = new BucketKey(policy, "10.0.0.1");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.tryConsume(key).allowed());
+        }
+
+        // One lease of 10 tokens was taken from the row; the other nine requests were served locally.
+        assertEquals(CAPACITY - 10, rateLimitBucketRepository.findStateById(JdbcBucketStore.rowId(key)).orElseThrow().tokens());
+    }
+
+    @Test
+    void tryConsume_ShouldRefillAfterPeriodAndReportRetryAfter() {
+        JdbcBucketStore store = newStore(50);
+        BucketKey key = new BucketKey(policy, "10.0.0.1");
+        drain(store, key);
+        clock.advance(Duration.ofSeconds(15));
+
+        RateLimitResult rejected = store.tryConsume(key);
+
+        assertFalse(rejected.allowed());
+        assertEquals(45, rejected.retryAfterSeconds());
+
+        clock.advance(Duration.ofSeconds(45));
+        assertTrue(store.tryConsume(key).allowed());
+    }
+
+    @Test
+    void tryConsume_ShouldNeverOverGrantUnderConcurrentReplicas() throws InterruptedException {
+        List<JdbcBucketStore> replicas = List.of(newStore(50), newStore(50), newStore(50));
+        BucketKey key = new BucketKey(policy, "10.0.0.1");
+        AtomicInteger allowed = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        int threads = 12;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                JdbcBucketStore replica = replicas.get(i % replicas.size());
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int request = 0; request < 20; request++) {
+                            if (replica.tryConsume(key).allowed()) {
+                                allowed.incrementAndGet();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertTrue(done.await(60, TimeUnit.SECONDS), "Concurrent replicas did not finish in time");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long drained = replicas.stream().mapToLong(replica -> drain(replica, key)).sum();
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(CAPACITY, allowed.get() + drained);
+    }
+
+    @Test
+    void purgeIdle_ShouldDeleteRowsIdleForLongestPeriod() {
+        JdbcBucketStore store = newStore(50);
+        store.tryConsume(new BucketKey(policy, "10.0.0.1"));
+        clock.advance(Duration.ofSeconds(30));
+        store.tryConsume(new BucketKey(policy, "10.0.0.2"));
+        clock.advance(Duration.ofSeconds(45));
+
+        assertEquals(1, store.purgeIdle());
+        assertEquals(1, rateLimitBucketRepository.count());
+    }
+
+    @Test
+    void tryConsume_ShouldKeepSecondLevelCacheWhenCreatingBucket() {
+        Long bookId = testDataSetup.createBooks(testDataSetup.createAuthors()).get(0).getId();
+        entityManagerFactory.getCache().evictAll();
+        bookRepository.findById(bookId);
+        assertTrue(entityManagerFactory.getCache().contains(Book.class, bookId));
+
+        newStore(50).tryConsume(new BucketKey(policy, "10.0.0.1"));
+
+        assertEquals(1, rateLimitBucketRepository.count());
+        assertTrue(entityManagerFactory.getCache().contains(Book.class, bookId));
+    }
+
+    private JdbcBucketStore newStore(int maxAttempts) {
+        RateLimitProperties.Jdbc jdbc = new RateLimitProperties.Jdbc(10, Duration.ofMinutes(5), maxAttempts);
+        return new JdbcBucketStore(rateLimitBucketRepository, jdbc, 1_000, PERIOD, clock, System::nanoTime, Runnable::run);
+    }
+
+    private static long drain(JdbcBucketStore store, BucketKey key) {
+        long allowed = 0;
+        while (store.tryConsume(key).allowed()) {
+            allowed++;
+        }
+        return allowed;
+    }
+
+    private static final class MutableClock extends Clock {
+        private final AtomicLong millis;
+
+        MutableClock(Instant start) {
+            this.millis = new AtomicLong(start.toEpochMilli());
+        }
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
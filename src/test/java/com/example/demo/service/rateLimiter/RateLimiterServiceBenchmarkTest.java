@@ -0,0 +1,56 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives 10M distinct keys through the limiter and samples retained heap along the way. Once the
+ * store reaches its cap the heap must stop growing. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RateLimiterServiceBenchmarkTest {
+    private static final int DISTINCT_KEYS = 10_000_000;
+    private static final int SAMPLE_EVERY = 1_000_000;
+    private static final long MAX_BUCKETS = 100_000;
+    private static final long ALLOWED_DRIFT_BYTES = 32L * 1024 * 1024;
+
+    @Test
+    void retainedHeap_ShouldStayFlatUnderDistinctKeyFlood() {
+        RateLimitProperties properties = new RateLimitProperties(RateLimitProperties.Mode.LOCAL, MAX_BUCKETS, List.of(), List.of(), null);
+        RateLimiterService rateLimiterService = new RateLimiterService(properties, new SimpleMeterRegistry(), null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        long[] samples = new long[DISTINCT_KEYS / SAMPLE_EVERY];
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= DISTINCT_KEYS; i++) {
+            request.setRemoteAddr("key-" + i);
+            rateLimiterService.check(request);
+            if (i % SAMPLE_EVERY == 0) {
+                samples[i / SAMPLE_EVERY - 1] = retainedHeap();
+                System.out.printf("keys=%,d buckets=%,d retainedHeap=%,d bytes%n", i, rateLimiterService.bucketCount(), samples[i / SAMPLE_EVERY - 1]);
+            }
+        }
+        System.out.printf("%,d lookups in %,d ms%n", DISTINCT_KEYS, (System.nanoTime() - start) / 1_000_000);
+
+        assertTrue(rateLimiterService.bucketCount() <= MAX_BUCKETS);
+        assertTrue(samples[samples.length - 1] - samples[0] < ALLOWED_DRIFT_BYTES,
+                "retained heap grew from " + samples[0] + " to " + samples[samples.length - 1] + " bytes");
+    }
+
+    private static long retainedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.service.rateLimiter;
+
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.config.RateLimitProperties.KeyType;
+import com.example.demo.config.RateLimitProperties.Mode;
+import com.example.demo.config.RateLimitProperties.Policy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterServiceTest {
+
+    private MeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        RateLimitProperties properties = new RateLimitProperties(Mode.LOCAL, 50, List.of("/actuator/health/**"), List.of(
+                new Policy("borrow", "/api/transactions/**", List.of("post"), 2, Duration.ofMinutes(1), KeyType.MEMBER, null),
+                new Policy("search", "/api/books/search", List.of(), 3, Duration.ofMinutes(1), KeyType.HEADER, "X-Api-Key"),
+                new Policy("default", "/**", List.of(), 100, Duration.ofMinutes(10), KeyType.IPV6_PREFIX, null)
+        ), null);
+        rateLimiterService = new RateLimiterService(properties, meterRegistry, null, Clock.systemUTC(), nanos::get, Runnable::run);
+    }
+
+    @Test
+    void check_ShouldRejectWithRetryAfterOnceBucketIsEmpty() {
+        assertEquals(1, rateLimiterService.check(request("POST", "/api/transactions/borrow", "10.0.0.1")).remaining());
+        assertEquals(0, rateLimiterService.check(request("POST", "/api/transactions/borrow", "10.0.0.1")).remaining());
+
+        RateLimitResult rejected = rateLimiterService.check(request("POST", "/api/transactions/borrow", "10.0.0.1"));
+
+        assertFalse(rejected.allowed());
+        assertTrue(rejected.retryAfterSeconds() >= 1 && rejected.retryAfterSeconds() <= 60);
+        assertEquals(1.0, meterRegistry.get("rate_limiter.rejections").tag("policy", "borrow").counter().count());
+    }
+
+    @Test
+    void check_ShouldFallThroughToNextPolicyWhenMethodDoesNotMatch() {
+        RateLimitResult result = rateLimiterService.check(request("GET", "/api/transactions", "10.0.0.1"));
+
+        assertTrue(result.allowed());
+        assertEquals(99, result.remaining());
+    }
+
+    @Test
+    void check_ShouldNotLimitExemptPaths() {
+        RateLimitResult result = rateLimiterService.check(request("GET", "/actuator/health/liveness", "10.0.0.1"));
+
+        assertSame(RateLimitResult.UNLIMITED, result);
+        assertFalse(result.limited());
+        assertEquals(0, rateLimiterService.bucketCount());
+    }
+
+    @Test
+    void check_ShouldKeyByMemberHeaderAcrossAddresses() {
+        MockHttpServletRequest first = request("POST", "/api/transactions/borrow", "10.0.0.1");
+        first.addHeader(RateLimiterService.MEMBER_HEADER, "7");
+        MockHttpServletRequest second = request("POST", "/api/transactions/borrow", "10.0.0.2");
+        second.addHeader(RateLimiterService.MEMBER_HEADER, "7");
+
+        rateLimiterService.check(first);
+
+        assertEquals(0, rateLimiterService.check(second).remaining());
+    }
+
+    @Test
+    void check_ShouldKeyByApiKeyHeader() {
+        MockHttpServletRequest withKey = request("GET", "/api/books/search", "10.0.0.1");
+        withKey.addHeader("X-Api-Key", "abc");
+
+        rateLimiterService.check(withKey);
+        rateLimiterService.check(withKey);
+
+        assertEquals(0, rateLimiterService.check(withKey).remaining());
+        assertEquals(2, rateLimiterService.check(request("GET", "/api/books/search", "10.0.0.1")).remaining());
+    }
+
+    @Test
+    void check_ShouldGroupIpv6ClientsByPrefix() {
+        rateLimiterService.check(request("GET", "/api/books", "2001:db8:1:2::1"));
+
+        assertEquals(98, rateLimiterService.check(request("GET", "/api/books", "2001:db8:1:2:ffff::9")).remaining());
+        assertEquals(99, rateLimiterService.check(request("GET", "/api/books", "2001:db8:1:3::1")).remaining());
+    }
+
+    @Test
+    void ipv6Prefix_ShouldLeaveIpv4Untouched() {
+        assertEquals("10.0.0.1", RateLimitPolicy.ipv6Prefix("10.0.0.1"));
+        assertEquals("20010db800010002::/64", RateLimitPolicy.ipv6Prefix("2001:db8:1:2::1"));
+    }
+
+    @Test
+    void check_ShouldCapStoreAtMaximumSize() {
+        for (int i = 0; i < 1_000; i++) {
+            rateLimiterService.check(request("GET", "/api/books", "10.0." + (i / 256) + "." + (i % 256)));
+        }
+
+        assertTrue(rateLimiterService.bucketCount() <= 50);
+        assertEquals(rateLimiterService.bucketCount(), meterRegistry.get("rate_limiter.buckets").gauge().value());
+        assertTrue(meterRegistry.get("rate_limiter.evictions").functionCounter().count() >= 950);
+    }
+
+    @Test
+    void check_ShouldExpireBucketsIdleForTheirPolicyRefillPeriod() {
+        rateLimiterService.check(request("POST", "/api/transactions/borrow", "10.0.0.1"));
+        rateLimiterService.check(request("GET", "/api/books", "10.0.0.1"));
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertEquals(1, rateLimiterService.bucketCount());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.uniqueKey;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAnAddedKeyAcrossGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add(String.format("978%010d", i));
+        }
+
+        assertTrue(filter.segmentCount() > 1, "Expected the filter to have grown past its first segment");
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain(String.format("978%010d", i)), "missed key " + i);
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayWithinFalsePositiveRateAsItGrows() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 200_000; i++) {
+            filter.add("member" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("stranger" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.015, "Observed false-positive rate " + observed);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void add_ShouldNotCountKeysAlreadyPresent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(16, 0.01);
+        filter.add("9780441013593");
+        filter.add("9780441013593");
+
+        assertEquals(1, filter.size());
+        assertFalse(filter.mightContain("9780000000000"));
+    }
+}
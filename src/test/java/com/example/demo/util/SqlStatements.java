@@ -0,0 +1,36 @@
+package com.example.demo.util;
+
+import com.example.demo.instrumentation.SqlStatementStats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the SQL an endpoint runs: counts the statements executed on the calling thread while the
+ * action runs, which for MockMvc is the whole request.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static SqlStatementStats during(Action action) throws Exception {
+        try (SqlStatementStats stats = SqlStatementStats.open()) {
+            action.run();
+            return stats;
+        }
+    }
+
+    /** Asserts the action runs exactly {@code expected} statements, none of them twice. */
+    public static SqlStatementStats assertStatementCount(int expected, Action action) throws Exception {
+        SqlStatementStats stats = during(action);
+        assertEquals(expected, stats.statements(), () -> "Unexpected SQL: " + stats);
+        assertTrue(stats.repeatedStatements(2).isEmpty(), () -> "Repeated SQL, likely an N+1: " + stats);
+        return stats;
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
@@ -9,7 +9,9 @@ import com.example.demo.repository.author.AuthorRepository;
 import com.example.demo.repository.book.BookRepository;
 import com.example.demo.repository.borrowTransaction.BorrowTransactionRepository;
 import com.example.demo.repository.member.MemberRepository;
+import com.example.demo.service.borrowTransaction.ActiveLoanRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -32,11 +34,20 @@ public class TestDataSetup {
     @Autowired
     private BorrowTransactionRepository borrowTransactionRepository;
 
+    // Loans saved here bypass BorrowTransactionService, so the registry and the members' loan
+    // counts are reloaded after each write.
+    @Autowired
+    private ActiveLoanRegistry activeLoanRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     public void cleanAll() {
         borrowTransactionRepository.deleteAll();
         bookRepository.deleteAll();
         authorRepository.deleteAll();
         memberRepository.deleteAll();
+        activeLoanRegistry.rebuild();
     }
 
     public List<Author> createAuthors() {
@@ -152,9 +163,11 @@ public class TestDataSetup {
         overdueTransaction.setDueDate(LocalDate.now().minusDays(16));
         overdueTransaction.setStatus(Status.BORROWED);
 
-        return borrowTransactionRepository.saveAll(Arrays.asList(
+        List<BorrowTransaction> saved = borrowTransactionRepository.saveAll(Arrays.asList(
             transaction1, transaction2, transaction3, overdueTransaction
         ));
+        loansChanged();
+        return saved;
     }
 
     public void setupFullTestData() {
@@ -212,6 +225,14 @@ public class TestDataSetup {
         book.setAvailableCopies(book.getAvailableCopies() - 1);
         bookRepository.save(book);
         
-        return borrowTransactionRepository.save(transaction);
+        BorrowTransaction saved = borrowTransactionRepository.save(transaction);
+        loansChanged();
+        return saved;
+    }
+
+    private void loansChanged() {
+        activeLoanRegistry.rebuild();
+        jdbcTemplate.update("UPDATE members SET active_loans = (SELECT COUNT(*) FROM borrow_transactions bt " +
+                "WHERE bt.member_id = members.id AND bt.status = 'BORROWED')");
     }
 }